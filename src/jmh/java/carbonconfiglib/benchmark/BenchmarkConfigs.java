@@ -0,0 +1,76 @@
+package carbonconfiglib.benchmark;
+
+import java.nio.file.Paths;
+
+import carbonconfiglib.api.SystemLogger;
+import carbonconfiglib.config.Config;
+import carbonconfiglib.config.ConfigHandler;
+import carbonconfiglib.config.ConfigSection;
+import carbonconfiglib.config.ConfigSettings;
+import carbonconfiglib.config.FileSystemWatcher;
+import carbonconfiglib.utils.AutomationType;
+
+/**
+ * Copyright 2026 Speiger, Meduris
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * Generates Configs with a mix of all basic Entry Types for the Benchmarks.
+ */
+public final class BenchmarkConfigs {
+	public static final int ENTRIES_PER_SECTION = 50;
+	private static final FileSystemWatcher WATCHER = new FileSystemWatcher(new SystemLogger(), Paths.get("run", "benchmark"), null);
+	
+	private BenchmarkConfigs() {}
+	
+	public static Config create(int entries) {
+		Config config = new Config("benchmark");
+		ConfigSection section = null;
+		for(int i = 0;i<entries;i++) {
+			if(i % ENTRIES_PER_SECTION == 0) section = config.add("section"+(i / ENTRIES_PER_SECTION));
+			switch(i % 6) {
+				case 0:
+					section.addInt("int"+i, i, "Int Entry "+i).setRange(0, Integer.MAX_VALUE);
+					break;
+				case 1:
+					section.addLong("long"+i, i * 31L, "Long Entry "+i);
+					break;
+				case 2:
+					section.addDouble("double"+i, i * 0.5D, "Double Entry "+i).setRange(0D, 1000000D);
+					break;
+				case 3:
+					section.addBool("bool"+i, (i & 1) == 0, "Bool Entry "+i);
+					break;
+				case 4:
+					section.addString("string"+i, "Value of Entry "+i, "String Entry "+i);
+					break;
+				default:
+					section.addArray("array"+i, createArray(i), "Array Entry "+i);
+					break;
+			}
+		}
+		return config;
+	}
+	
+	private static String[] createArray(int index) {
+		String[] result = new String[16];
+		for(int i = 0;i<result.length;i++) {
+			result[i] = "element_"+index+"_"+i;
+		}
+		return result;
+	}
+	
+	public static ConfigHandler createHandler(Config config) {
+		return WATCHER.createConfig(config, ConfigSettings.withSettings(AutomationType.AUTO_LOAD));
+	}
+}
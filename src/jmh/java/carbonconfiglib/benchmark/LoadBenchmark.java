@@ -0,0 +1,86 @@
+package carbonconfiglib.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import carbonconfiglib.config.Config;
+import carbonconfiglib.config.ConfigHandler;
+import carbonconfiglib.config.ConfigTokenizer;
+import carbonconfiglib.utils.MultilinePolicy;
+
+/**
+ * Copyright 2026 Speiger, Meduris
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * Parsing of small, medium and huge Configs, without the File IO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadBenchmark {
+	@Param({"60", "3000", "100000"})
+	int entries;
+	Config config;
+	ConfigHandler handler;
+	String text;
+	ByteBuffer bytes;
+	
+	@Setup
+	public void setup() {
+		config = BenchmarkConfigs.create(entries);
+		handler = BenchmarkConfigs.createHandler(config);
+		text = config.serialize(MultilinePolicy.MULTILINE_IF_TO_LONG);
+		bytes = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	@Benchmark
+	public boolean loadText() throws IOException {
+		return ConfigHandler.load(handler, config, ConfigTokenizer.of(text), false);
+	}
+	
+	@Benchmark
+	public boolean loadReader() throws IOException {
+		return ConfigHandler.load(handler, config, ConfigTokenizer.of(new StringReader(text)), false);
+	}
+	
+	@Benchmark
+	public boolean loadBytes() throws IOException {
+		return ConfigHandler.load(handler, config, ConfigTokenizer.of(bytes.duplicate()), false);
+	}
+	
+	@Benchmark
+	public Config loadUnregistered() throws IOException {
+		Config output = new Config("benchmark");
+		ConfigHandler.load(handler, output, ConfigTokenizer.of(text), false);
+		return output;
+	}
+}
@@ -0,0 +1,76 @@
+package carbonconfiglib.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import carbonconfiglib.config.Config;
+import carbonconfiglib.config.ConfigEntry.IntValue;
+import carbonconfiglib.utils.MultilinePolicy;
+
+/**
+ * Copyright 2026 Speiger, Meduris
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * Rendering a Config with nothing, one and every Entry changed since the last save.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializeBenchmark {
+	@Param({"DISABLED", "MULTILINE_IF_TO_LONG", "ALWAYS_MULTILINE"})
+	MultilinePolicy policy;
+	@Param({"3000"})
+	int entries;
+	Config config;
+	IntValue changed;
+	int counter;
+	
+	@Setup
+	public void setup() {
+		config = BenchmarkConfigs.create(entries);
+		changed = (IntValue)config.getSection("section0").getEntry("int0");
+		config.serialize(policy);
+	}
+	
+	@Benchmark
+	public String serializeUnchanged() {
+		return config.serialize(policy);
+	}
+	
+	@Benchmark
+	public String serializeOneChanged() {
+		changed.set(counter++ & 1023);
+		return config.serialize(policy);
+	}
+	
+	@Benchmark
+	public String serializeAllChanged() {
+		config.resetDefault();
+		return config.serialize(policy);
+	}
+}
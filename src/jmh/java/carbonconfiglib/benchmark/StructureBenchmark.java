@@ -0,0 +1,101 @@
+package carbonconfiglib.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import carbonconfiglib.api.IConfigSerializer;
+import carbonconfiglib.utils.ParseResult;
+import carbonconfiglib.utils.ParsedCollections.ParsedMap;
+import carbonconfiglib.utils.structure.IStructuredData.EntryDataType;
+import carbonconfiglib.utils.structure.StructureCompound.CompoundBuilder;
+import carbonconfiglib.utils.structure.StructureCompound.CompoundData;
+import speiger.src.collections.objects.lists.ObjectArrayList;
+
+/**
+ * Copyright 2026 Speiger, Meduris
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * Compound parsing and the reflection based Parser/Serializer of Parsed Values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StructureBenchmark {
+	CompoundData data;
+	IConfigSerializer.Parser<ReflectedValue> parser;
+	IConfigSerializer.Serializer<ReflectedValue> serializer;
+	ReflectedValue value;
+	ParsedMap map;
+	ParsedMap parsed;
+	String text;
+	
+	@Setup
+	public void setup() {
+		data = new CompoundBuilder().setNewLined(false)
+				.simple("enabled", EntryDataType.BOOLEAN)
+				.simple("count", EntryDataType.INTEGER)
+				.simple("weight", EntryDataType.DOUBLE)
+				.simple("name", EntryDataType.STRING)
+				.listSimple("tags", EntryDataType.STRING, false)
+				.build();
+		parser = new IConfigSerializer.Parser<>(ReflectedValue.class, data);
+		serializer = new IConfigSerializer.Serializer<>(ReflectedValue.class, data);
+		value = new ReflectedValue();
+		map = serializer.apply(value);
+		text = data.serialize(map, false);
+		parsed = data.parse(text);
+	}
+	
+	@Benchmark
+	public ParsedMap parseCompound() {
+		return data.parse(text);
+	}
+	
+	@Benchmark
+	public String serializeCompound() {
+		return data.serialize(map, false);
+	}
+	
+	@Benchmark
+	public ParseResult<ReflectedValue> reflectParse() {
+		return parser.apply(parsed);
+	}
+	
+	@Benchmark
+	public ParsedMap reflectSerialize() {
+		return serializer.apply(value);
+	}
+	
+	public static class ReflectedValue {
+		boolean enabled = true;
+		int count = 42;
+		double weight = 12.5D;
+		String name = "Reflected Value";
+		List<String> tags = ObjectArrayList.wrap(new String[] {"first", "second", "third", "fourth"});
+	}
+}
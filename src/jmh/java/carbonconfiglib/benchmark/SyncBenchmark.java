@@ -0,0 +1,92 @@
+package carbonconfiglib.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import carbonconfiglib.api.buffer.ConfigBuffer;
+import carbonconfiglib.config.Config;
+import carbonconfiglib.config.ConfigEntry;
+import carbonconfiglib.config.ConfigSection;
+import speiger.src.collections.objects.lists.ObjectArrayList;
+
+/**
+ * Copyright 2026 Speiger, Meduris
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * Binary round trips of all Entries of a Config, the way they are sent when syncing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SyncBenchmark {
+	@Param({"60", "3000"})
+	int entries;
+	@Param({"false", "true"})
+	boolean direct;
+	List<ConfigEntry<?>> values = new ObjectArrayList<>();
+	ConfigBuffer buffer;
+	
+	@Setup
+	public void setup() {
+		buffer = direct ? ConfigBuffer.direct(1024) : ConfigBuffer.heap(1024);
+		Config config = BenchmarkConfigs.create(entries);
+		for(ConfigSection section : config.getChildren()) {
+			values.addAll(section.getEntries());
+		}
+	}
+	
+	@Benchmark
+	public ConfigBuffer write() {
+		buffer.clear();
+		for(int i = 0,m=values.size();i<m;i++) {
+			values.get(i).serialize(buffer);
+		}
+		return buffer;
+	}
+	
+	@Benchmark
+	public ConfigBuffer roundTrip() {
+		write();
+		buffer.flip();
+		for(int i = 0,m=values.size();i<m;i++) {
+			values.get(i).deserialize(buffer, null);
+		}
+		return buffer;
+	}
+	
+	@Benchmark
+	public int pooledWrite() {
+		try(ConfigBuffer buffer = ConfigBuffer.pooled()) {
+			for(int i = 0,m=values.size();i<m;i++) {
+				values.get(i).serialize(buffer);
+			}
+			return buffer.position();
+		}
+	}
+}
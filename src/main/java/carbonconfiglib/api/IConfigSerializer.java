@@ -1,6 +1,5 @@
 package carbonconfiglib.api;
 
-import java.lang.reflect.Field;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -249,41 +248,45 @@ public interface IConfigSerializer<T> {
         
     	Class<T> type;
     	CompoundData data;
+    	ReflectionPlan plan;
     	
 		public Parser(Class<T> type, CompoundData data) {
 			this.type = type;
 			this.data = data;
+			this.plan = new ReflectionPlan(type, data.getKeys(), WRAPPERS);
 		}
 		
 		@Override
+		@SuppressWarnings("unchecked")
 		public ParseResult<T> apply(ParsedMap t) {
+			T value;
 			try {
-				T value = type.getConstructor().newInstance();
-				for(String key : data.getKeys()) {
-					try {
-						Field field = type.getDeclaredField(key);
-						field.setAccessible(true);
-						Class<?> type = field.getType();
-						boolean collection = Collection.class.isAssignableFrom(type);
-						ParseResult<?> data = t.getOrError(key, (Class<?>)(collection ? ParsedList.class : WRAPPERS.getOrDefault(type, type)));
-						if(data.hasError()) return data.onlyError();
-						if(collection) {
-							field.set(value, unwrap((ParsedList)data.getValue()));
-							continue;
-						}
-						field.set(value, data.getValue());
-					}
-					catch(Exception e) {
-						e.printStackTrace();
-						return ParseResult.error(t.toString(), e, "Couldn't Set Field ["+key+"] in class ["+type.getSimpleName()+"]");
-					}
-				}
-				return ParseResult.success(value);
+				if(plan.constructorError != null) throw plan.constructorError;
+				value = (T)plan.constructor.invokeExact();
 			}
-			catch(Exception e) {
-				e.printStackTrace();
-				return ParseResult.error(t.toString(), e, "Couldn't create instance of ["+type.getSimpleName()+"]");
+			catch(Throwable e) {
+				Exception error = toException(e);
+				if(ADVANCED_ERROR_LOGGING) error.printStackTrace();
+				return ParseResult.error(t.toString(), error, "Couldn't create instance of ["+type.getSimpleName()+"]");
+			}
+			for(ReflectionPlan.FieldAccess field : plan.fields) {
+				try {
+					if(field.error != null) throw field.error;
+					ParseResult<?> data = t.getOrError(field.key, field.dataType);
+					if(data.hasError()) return data.onlyError();
+					field.setter.invokeExact((Object)value, field.collection ? (Object)unwrap((ParsedList)data.getValue()) : (Object)data.getValue());
+				}
+				catch(Throwable e) {
+					Exception error = toException(e);
+					if(ADVANCED_ERROR_LOGGING) error.printStackTrace();
+					return ParseResult.error(t.toString(), error, "Couldn't Set Field ["+field.key+"] in class ["+type.getSimpleName()+"]");
+				}
 			}
+			return ParseResult.success(value);
+		}
+		
+		static Exception toException(Throwable e) {
+			return e instanceof Exception ? (Exception)e : new RuntimeException(e);
 		}
 		
 		@SuppressWarnings("unchecked")
@@ -300,10 +303,12 @@ public interface IConfigSerializer<T> {
     public static class Serializer<T> implements Function<T, ParsedMap> {
     	Class<T> type;
     	CompoundData data;
+    	ReflectionPlan plan;
     	
 		public Serializer(Class<T> type, CompoundData data) {
 			this.type = type;
 			this.data = data;
+			this.plan = new ReflectionPlan(type, data.getKeys(), Parser.WRAPPERS);
 		}
 
 		@Override
@@ -311,16 +316,15 @@ public interface IConfigSerializer<T> {
 		public ParsedMap apply(T t) {
 			ParsedMap map = new ParsedMap();
 			try {
-				for(String key : data.getKeys()) {
-					Field field = type.getDeclaredField(key);
-					field.setAccessible(true);
-					Object data = field.get(t);
-					if(data instanceof Collection) map.put(key, wrapList((Collection<? extends Object>)data));
-					else map.put(key, data);
+				for(ReflectionPlan.FieldAccess field : plan.fields) {
+					if(field.error != null) throw field.error;
+					Object data = field.getter.invokeExact((Object)t);
+					if(data instanceof Collection) map.put(field.key, wrapList((Collection<? extends Object>)data));
+					else map.put(field.key, data);
 				}
 			}
-			catch(Exception e) {
-				e.printStackTrace();
+			catch(Throwable e) {
+				if(ADVANCED_ERROR_LOGGING) e.printStackTrace();
 			}
 			return map;
 		}
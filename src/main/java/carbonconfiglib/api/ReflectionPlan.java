@@ -0,0 +1,96 @@
+package carbonconfiglib.api;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import carbonconfiglib.utils.ParsedCollections.ParsedList;
+
+/**
+ * Copyright 2026 Speiger, Meduris
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * Constructor and Field accessors of a reflected class, resolved once into MethodHandles.
+ * Lookup failures are kept and reported when the Field is used, like they were when the lookup happened on every use.
+ */
+final class ReflectionPlan {
+	static final MethodType CONSTRUCTOR = MethodType.methodType(Object.class);
+	static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+	static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+	
+	final MethodHandle constructor;
+	final Exception constructorError;
+	final FieldAccess[] fields;
+	
+	ReflectionPlan(Class<?> type, List<String> keys, Map<Class<?>, Class<?>> wrappers) {
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		MethodHandle constructor = null;
+		Exception constructorError = null;
+		try {
+			Constructor<?> init = type.getConstructor();
+			init.setAccessible(true);
+			constructor = lookup.unreflectConstructor(init).asType(CONSTRUCTOR);
+		}
+		catch(Exception e) {
+			constructorError = e;
+		}
+		this.constructor = constructor;
+		this.constructorError = constructorError;
+		fields = new FieldAccess[keys.size()];
+		for(int i = 0,m=keys.size();i<m;i++) {
+			fields[i] = new FieldAccess(lookup, type, keys.get(i), wrappers);
+		}
+	}
+	
+	static final class FieldAccess {
+		final String key;
+		final boolean collection;
+		final Class<?> dataType;
+		final MethodHandle getter;
+		final MethodHandle setter;
+		final Exception error;
+		
+		FieldAccess(MethodHandles.Lookup lookup, Class<?> owner, String key, Map<Class<?>, Class<?>> wrappers) {
+			this.key = key;
+			boolean collection = false;
+			Class<?> dataType = null;
+			MethodHandle getter = null;
+			MethodHandle setter = null;
+			Exception error = null;
+			try {
+				Field field = owner.getDeclaredField(key);
+				field.setAccessible(true);
+				Class<?> type = field.getType();
+				collection = Collection.class.isAssignableFrom(type);
+				dataType = collection ? ParsedList.class : wrappers.getOrDefault(type, type);
+				getter = lookup.unreflectGetter(field).asType(GETTER);
+				//Primitive Fields unbox the value directly instead of going through Field.set
+				setter = lookup.unreflectSetter(field).asType(SETTER);
+			}
+			catch(Exception e) {
+				error = e;
+			}
+			this.collection = collection;
+			this.dataType = dataType;
+			this.getter = getter;
+			this.setter = setter;
+			this.error = error;
+		}
+	}
+}
@@ -0,0 +1,366 @@
+package carbonconfiglib.api.buffer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Copyright 2026 Speiger, Meduris
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * Read/Write Buffer backed by a heap or direct {@link ByteBuffer}.
+ * Writing grows the Buffer as needed, unless it wraps a foreign ByteBuffer.
+ * Strings are written as VarInt byte length followed by UTF-8 and are encoded/decoded directly in the Buffer.
+ * {@link #pooled()} hands out a Buffer per Thread that is reused after it was closed, so repeated syncs don't allocate new Buffers.
+ */
+public final class ConfigBuffer implements IReadBuffer, IWriteBuffer, AutoCloseable {
+	static final int POOL_CAPACITY = 1024;
+	static final int MAX_POOLED_CAPACITY = 1 << 20;
+	static final ThreadLocal<ConfigBuffer> POOL = ThreadLocal.withInitial(() -> new ConfigBuffer(ByteBuffer.allocate(POOL_CAPACITY), true, true));
+	static final ClassValue<Object[]> ENUMS = new ClassValue<Object[]>() {
+		@Override
+		protected Object[] computeValue(Class<?> type) {
+			return type.getEnumConstants();
+		}
+	};
+	
+	ByteBuffer buffer;
+	final boolean growable;
+	final boolean pooled;
+	boolean inUse;
+	char[] chars = new char[0];
+	
+	private ConfigBuffer(ByteBuffer buffer, boolean growable, boolean pooled) {
+		this.buffer = buffer;
+		this.growable = growable;
+		this.pooled = pooled;
+	}
+	
+	public static ConfigBuffer heap() {
+		return heap(256);
+	}
+	
+	public static ConfigBuffer heap(int capacity) {
+		return new ConfigBuffer(ByteBuffer.allocate(capacity), true, false);
+	}
+	
+	public static ConfigBuffer direct(int capacity) {
+		return new ConfigBuffer(ByteBuffer.allocateDirect(capacity), true, false);
+	}
+	
+	/**
+	 * Uses the ByteBuffer as is, writing more then it can hold throws a {@link java.nio.BufferOverflowException}.
+	 */
+	public static ConfigBuffer wrap(ByteBuffer buffer) {
+		return new ConfigBuffer(buffer, false, false);
+	}
+	
+	public static ConfigBuffer wrap(byte[] data) {
+		return new ConfigBuffer(ByteBuffer.wrap(data), false, false);
+	}
+	
+	/**
+	 * Provides the cleared Buffer of the current Thread. It should be closed once the data was written out so it can be reused.
+	 * If the Buffer of the Thread is still in use a new Buffer is provided instead.
+	 */
+	public static ConfigBuffer pooled() {
+		ConfigBuffer buffer = POOL.get();
+		if(buffer.inUse) return heap(POOL_CAPACITY);
+		buffer.inUse = true;
+		buffer.clear();
+		return buffer;
+	}
+	
+	@Override
+	public void close() {
+		if(!pooled || !inUse) return;
+		inUse = false;
+		if(buffer.capacity() > MAX_POOLED_CAPACITY) buffer = ByteBuffer.allocate(POOL_CAPACITY);
+		if(chars.length > MAX_POOLED_CAPACITY) chars = new char[0];
+	}
+	
+	public ByteBuffer getBuffer() {
+		return buffer;
+	}
+	
+	public ConfigBuffer clear() {
+		buffer.clear();
+		return this;
+	}
+	
+	/**
+	 * Switches from writing to reading the written data.
+	 */
+	public ConfigBuffer flip() {
+		buffer.flip();
+		return this;
+	}
+	
+	public int position() {
+		return buffer.position();
+	}
+	
+	public int remaining() {
+		return buffer.remaining();
+	}
+	
+	/**
+	 * @return a copy of the bytes between position and limit
+	 */
+	public byte[] toByteArray() {
+		byte[] result = new byte[buffer.remaining()];
+		buffer.duplicate().get(result);
+		return result;
+	}
+	
+	private ByteBuffer ensure(int amount) {
+		if(buffer.remaining() >= amount || !growable) return buffer;
+		int required = buffer.position() + amount;
+		if(required < 0) throw new IllegalStateException("Buffer can't grow beyond 2GB");
+		int capacity = Math.max(required, buffer.capacity() < (1 << 30) ? buffer.capacity() << 1 : Integer.MAX_VALUE);
+		ByteBuffer newBuffer = buffer.isDirect() ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+		buffer.flip();
+		newBuffer.put(buffer);
+		buffer = newBuffer;
+		return buffer;
+	}
+	
+	@Override
+	public void writeBoolean(boolean value) {
+		ensure(1).put((byte)(value ? 1 : 0));
+	}
+	
+	@Override
+	public void writeByte(byte value) {
+		ensure(1).put(value);
+	}
+	
+	@Override
+	public void writeShort(short value) {
+		ensure(2).putShort(value);
+	}
+	
+	@Override
+	public void writeMedium(int value) {
+		ensure(3).put((byte)(value >> 16)).putShort((short)value);
+	}
+	
+	@Override
+	public void writeInt(int value) {
+		ensure(4).putInt(value);
+	}
+	
+	@Override
+	public void writeVarInt(int value) {
+		ByteBuffer buffer = ensure(5);
+		while((value & ~0x7F) != 0) {
+			buffer.put((byte)((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte)value);
+	}
+	
+	@Override
+	public void writeFloat(float value) {
+		ensure(4).putFloat(value);
+	}
+	
+	@Override
+	public void writeDouble(double value) {
+		ensure(8).putDouble(value);
+	}
+	
+	@Override
+	public void writeLong(long value) {
+		ensure(8).putLong(value);
+	}
+	
+	@Override
+	public void writeChar(char value) {
+		ensure(2).putChar(value);
+	}
+	
+	@Override
+	public void writeEnum(Enum<?> value) {
+		writeVarInt(value.ordinal());
+	}
+	
+	@Override
+	public void writeString(String value) {
+		writeString(value, 0);
+	}
+	
+	/**
+	 * Writes the String starting at the given char index, without creating a substring.
+	 */
+	void writeString(String value, int start) {
+		int length = value.length();
+		int bytes = utf8Length(value, start, length);
+		writeVarInt(bytes);
+		ByteBuffer buffer = ensure(bytes);
+		if(bytes == length - start) {
+			//Only ASCII or broken surrogates
+			for(int i = start;i<length;i++) {
+				char c = value.charAt(i);
+				buffer.put(c < 0x80 ? (byte)c : (byte)'?');
+			}
+			return;
+		}
+		for(int i = start;i<length;i++) {
+			char c = value.charAt(i);
+			if(c < 0x80) buffer.put((byte)c);
+			else if(c < 0x800) buffer.put((byte)(0xC0 | (c >> 6))).put((byte)(0x80 | (c & 0x3F)));
+			else if(Character.isSurrogate(c)) {
+				if(Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+					int code = Character.toCodePoint(c, value.charAt(++i));
+					buffer.put((byte)(0xF0 | (code >> 18))).put((byte)(0x80 | ((code >> 12) & 0x3F))).put((byte)(0x80 | ((code >> 6) & 0x3F))).put((byte)(0x80 | (code & 0x3F)));
+				}
+				else buffer.put((byte)'?');
+			}
+			else buffer.put((byte)(0xE0 | (c >> 12))).put((byte)(0x80 | ((c >> 6) & 0x3F))).put((byte)(0x80 | (c & 0x3F)));
+		}
+	}
+	
+	private static int utf8Length(String value, int start, int length) {
+		int bytes = length - start;
+		for(int i = start;i<length;i++) {
+			char c = value.charAt(i);
+			if(c < 0x80) continue;
+			if(c < 0x800) bytes++;
+			else if(Character.isSurrogate(c)) {
+				//Valid pairs take 4 bytes for 2 chars, broken ones are replaced with a single '?'
+				if(Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+					bytes += 2;
+					i++;
+				}
+			}
+			else bytes += 2;
+		}
+		return bytes;
+	}
+	
+	@Override
+	public void writeBytes(byte[] value) {
+		writeVarInt(value.length);
+		ensure(value.length).put(value);
+	}
+	
+	@Override
+	public void writeUUID(UUID value) {
+		ensure(16).putLong(value.getMostSignificantBits()).putLong(value.getLeastSignificantBits());
+	}
+	
+	@Override
+	public boolean readBoolean() {
+		return buffer.get() != 0;
+	}
+	
+	@Override
+	public byte readByte() {
+		return buffer.get();
+	}
+	
+	@Override
+	public short readShort() {
+		return buffer.getShort();
+	}
+	
+	@Override
+	public int readMedium() {
+		return (buffer.get() << 16) | (buffer.getShort() & 0xFFFF);
+	}
+	
+	@Override
+	public int readInt() {
+		return buffer.getInt();
+	}
+	
+	@Override
+	public int readVarInt() {
+		int result = 0;
+		for(int shift = 0;shift < 35;shift += 7) {
+			byte value = buffer.get();
+			result |= (value & 0x7F) << shift;
+			if((value & 0x80) == 0) return result;
+		}
+		throw new IllegalStateException("VarInt is longer then 5 bytes");
+	}
+	
+	@Override
+	public float readFloat() {
+		return buffer.getFloat();
+	}
+	
+	@Override
+	public double readDouble() {
+		return buffer.getDouble();
+	}
+	
+	@Override
+	public long readLong() {
+		return buffer.getLong();
+	}
+	
+	@Override
+	public char readChar() {
+		return buffer.getChar();
+	}
+	
+	@Override
+	public <T extends Enum<T>> T readEnum(Class<T> clz) {
+		return clz.cast(ENUMS.get(clz)[readVarInt()]);
+	}
+	
+	@Override
+	public byte[] readBytes() {
+		int bytes = readVarInt();
+		if(bytes < 0 || bytes > buffer.remaining()) throw new IllegalStateException("Byte length ["+bytes+"] exceeds the remaining ["+buffer.remaining()+"] bytes");
+		byte[] result = new byte[bytes];
+		buffer.get(result);
+		return result;
+	}
+	
+	@Override
+	public String readString() {
+		int bytes = readVarInt();
+		if(bytes < 0 || bytes > buffer.remaining()) throw new IllegalStateException("String length ["+bytes+"] exceeds the remaining ["+buffer.remaining()+"] bytes");
+		if(buffer.hasArray()) {
+			int start = buffer.arrayOffset() + buffer.position();
+			buffer.position(buffer.position() + bytes);
+			return new String(buffer.array(), start, bytes, StandardCharsets.UTF_8);
+		}
+		if(chars.length < bytes) chars = new char[Math.max(bytes, chars.length << 1)];
+		char[] chars = this.chars;
+		int length = 0;
+		int end = buffer.position() + bytes;
+		while(buffer.position() < end) {
+			int b = buffer.get();
+			if(b >= 0) chars[length++] = (char)b;
+			else if((b & 0xE0) == 0xC0) chars[length++] = (char)(((b & 0x1F) << 6) | (buffer.get() & 0x3F));
+			else if((b & 0xF0) == 0xE0) chars[length++] = (char)(((b & 0x0F) << 12) | ((buffer.get() & 0x3F) << 6) | (buffer.get() & 0x3F));
+			else if((b & 0xF8) == 0xF0) {
+				int code = ((b & 0x07) << 18) | ((buffer.get() & 0x3F) << 12) | ((buffer.get() & 0x3F) << 6) | (buffer.get() & 0x3F);
+				chars[length++] = Character.highSurrogate(code);
+				chars[length++] = Character.lowSurrogate(code);
+			}
+			else chars[length++] = '\uFFFD';
+		}
+		return new String(chars, 0, length);
+	}
+	
+	@Override
+	public UUID readUUID() {
+		return new UUID(buffer.getLong(), buffer.getLong());
+	}
+}
@@ -0,0 +1,373 @@
+package carbonconfiglib.api.buffer;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import speiger.src.collections.objects.lists.ObjectArrayList;
+import speiger.src.collections.objects.maps.impl.hash.Object2ObjectOpenHashMap;
+
+/**
+ * Copyright 2026 Speiger, Meduris
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * Optional encoding for sync payloads that contain a lot of repeating Strings, like id lists.
+ * Both sides send their {@link #SUPPORTED} flags when connecting and use {@link #negotiate(int)} to find the encodings both understand.
+ * The used flags are written as a header byte, so a payload with no flags is simply the uncompressed data.
+ *
+ * {@link #DICTIONARY}: Every String is only written once per payload, repeats are written as a index and new Strings share their prefix with the previous new String.
+ * {@link #DEFLATE}: Payloads above the threshold are compressed with Deflate, if that actually makes them smaller.
+ */
+public final class SyncPayload {
+	public static final int DICTIONARY = 1;
+	public static final int DEFLATE = 2;
+	public static final int SUPPORTED = DICTIONARY | DEFLATE;
+	public static final int DEFAULT_THRESHOLD = 256;
+	public static final int DEFAULT_MAX_SIZE = 1 << 21;
+	static final ThreadLocal<Deflater> DEFLATERS = ThreadLocal.withInitial(() -> new Deflater());
+	static final ThreadLocal<Inflater> INFLATERS = ThreadLocal.withInitial(() -> new Inflater());
+	
+	private SyncPayload() {
+	}
+	
+	/**
+	 * @param remote the flags the other side sent
+	 * @return the flags that should be used for payloads sent to that side
+	 */
+	public static int negotiate(int remote) {
+		return remote & SUPPORTED;
+	}
+	
+	/**
+	 * Collects the payload and writes it with its header into another Buffer once {@link #writeTo(IWriteBuffer)} is called.
+	 * Should be closed afterwards since it uses the pooled Buffer of the Thread.
+	 */
+	public static final class Writer implements IWriteBuffer, AutoCloseable {
+		final int flags;
+		final int threshold;
+		final ConfigBuffer data = ConfigBuffer.pooled();
+		Map<String, Integer> dictionary;
+		String last = "";
+		
+		public Writer(int flags) {
+			this(flags, DEFAULT_THRESHOLD);
+		}
+		
+		public Writer(int flags, int threshold) {
+			if((flags & ~SUPPORTED) != 0) throw new IllegalArgumentException("Unsupported Payload Flags ["+flags+"]");
+			this.flags = flags;
+			this.threshold = threshold;
+			if((flags & DICTIONARY) != 0) dictionary = new Object2ObjectOpenHashMap<>();
+		}
+		
+		/**
+		 * Writes the header and the collected payload. The Writer can not be used afterwards.
+		 */
+		public void writeTo(IWriteBuffer buffer) {
+			ByteBuffer raw = data.flip().getBuffer();
+			int length = raw.remaining();
+			if((flags & DEFLATE) != 0 && length >= threshold) {
+				byte[] compressed = deflate(raw.array(), raw.arrayOffset() + raw.position(), length);
+				if(compressed != null) {
+					buffer.writeByte((byte)flags);
+					buffer.writeVarInt(length);
+					writeRaw(buffer, compressed, 0, compressed.length);
+					return;
+				}
+			}
+			buffer.writeByte((byte)(flags & ~DEFLATE));
+			writeRaw(buffer, raw.array(), raw.arrayOffset() + raw.position(), length);
+		}
+		
+		/**
+		 * Writes our own length prefix instead of using {@link IWriteBuffer#writeBytes(byte[])}, so the Reader can check it before anything is allocated.
+		 */
+		private static void writeRaw(IWriteBuffer buffer, byte[] bytes, int offset, int length) {
+			buffer.writeVarInt(length);
+			int end = offset + length;
+			for(;offset + 8 <= end;offset += 8) {
+				long value = 0L;
+				for(int i = 0;i<8;i++) {
+					value = (value << 8) | (bytes[offset + i] & 0xFFL);
+				}
+				buffer.writeLong(value);
+			}
+			for(;offset < end;offset++) {
+				buffer.writeByte(bytes[offset]);
+			}
+		}
+		
+		private static byte[] deflate(byte[] input, int offset, int length) {
+			Deflater deflater = DEFLATERS.get();
+			deflater.reset();
+			deflater.setInput(input, offset, length);
+			deflater.finish();
+			byte[] output = new byte[length];
+			int written = 0;
+			while(!deflater.finished() && written < length) {
+				written += deflater.deflate(output, written, length - written);
+			}
+			//Not smaller then the raw data, so it isn't worth it
+			if(!deflater.finished() || written >= length) return null;
+			byte[] result = new byte[written];
+			System.arraycopy(output, 0, result, 0, written);
+			return result;
+		}
+		
+		@Override
+		public void close() {
+			data.close();
+		}
+		
+		@Override
+		public void writeBoolean(boolean value) {
+			data.writeBoolean(value);
+		}
+		
+		@Override
+		public void writeByte(byte value) {
+			data.writeByte(value);
+		}
+		
+		@Override
+		public void writeShort(short value) {
+			data.writeShort(value);
+		}
+		
+		@Override
+		public void writeMedium(int value) {
+			data.writeMedium(value);
+		}
+		
+		@Override
+		public void writeInt(int value) {
+			data.writeInt(value);
+		}
+		
+		@Override
+		public void writeVarInt(int value) {
+			data.writeVarInt(value);
+		}
+		
+		@Override
+		public void writeFloat(float value) {
+			data.writeFloat(value);
+		}
+		
+		@Override
+		public void writeDouble(double value) {
+			data.writeDouble(value);
+		}
+		
+		@Override
+		public void writeLong(long value) {
+			data.writeLong(value);
+		}
+		
+		@Override
+		public void writeChar(char value) {
+			data.writeChar(value);
+		}
+		
+		@Override
+		public void writeEnum(Enum<?> value) {
+			data.writeEnum(value);
+		}
+		
+		@Override
+		public void writeString(String value) {
+			if(dictionary == null) {
+				data.writeString(value);
+				return;
+			}
+			Integer index = dictionary.get(value);
+			if(index != null) {
+				data.writeVarInt((index.intValue() << 1) | 1);
+				return;
+			}
+			int prefix = 0;
+			int max = Math.min(last.length(), value.length());
+			while(prefix < max && last.charAt(prefix) == value.charAt(prefix)) prefix++;
+			if(prefix > 0 && Character.isHighSurrogate(value.charAt(prefix - 1))) prefix--;
+			data.writeVarInt(prefix << 1);
+			data.writeString(value, prefix);
+			dictionary.put(value, dictionary.size());
+			last = value;
+		}
+		
+		@Override
+		public void writeBytes(byte[] value) {
+			data.writeBytes(value);
+		}
+		
+		@Override
+		public void writeUUID(UUID value) {
+			data.writeUUID(value);
+		}
+	}
+	
+	/**
+	 * Reads the header and decodes the payload that was written by a {@link Writer}.
+	 * Payloads come from the other side, so sizes above the limit are rejected before anything is allocated for them.
+	 */
+	public static final class Reader implements IReadBuffer {
+		final ConfigBuffer data;
+		List<String> dictionary;
+		String last = "";
+		
+		public Reader(IReadBuffer buffer) {
+			this(buffer, DEFAULT_MAX_SIZE);
+		}
+		
+		/**
+		 * @param maxSize the largest payload in bytes that is accepted, after decompression
+		 */
+		public Reader(IReadBuffer buffer, int maxSize) {
+			int flags = buffer.readByte() & 0xFF;
+			if((flags & ~SUPPORTED) != 0) throw new IllegalStateException("Unsupported Payload Flags ["+flags+"]");
+			int length = -1;
+			if((flags & DEFLATE) != 0) {
+				length = buffer.readVarInt();
+				if(length < 0 || length > maxSize) throw new IllegalStateException("Payload size ["+length+"] is outside of [0 ~ "+maxSize+"]");
+			}
+			byte[] payload = readRaw(buffer, maxSize);
+			data = ConfigBuffer.wrap(length == -1 ? payload : inflate(payload, length));
+			if((flags & DICTIONARY) != 0) dictionary = new ObjectArrayList<>();
+		}
+		
+		private static byte[] readRaw(IReadBuffer buffer, int maxSize) {
+			int length = buffer.readVarInt();
+			if(length < 0 || length > maxSize) throw new IllegalStateException("Payload size ["+length+"] is outside of [0 ~ "+maxSize+"]");
+			byte[] result = new byte[length];
+			int offset = 0;
+			for(;offset + 8 <= length;offset += 8) {
+				long value = buffer.readLong();
+				for(int i = 7;i>=0;i--) {
+					result[offset + i] = (byte)value;
+					value >>>= 8;
+				}
+			}
+			for(;offset < length;offset++) {
+				result[offset] = buffer.readByte();
+			}
+			return result;
+		}
+		
+		private static byte[] inflate(byte[] input, int length) {
+			Inflater inflater = INFLATERS.get();
+			inflater.reset();
+			inflater.setInput(input);
+			byte[] output = new byte[length];
+			try {
+				int read = 0;
+				while(read < length && !inflater.finished()) {
+					int result = inflater.inflate(output, read, length - read);
+					if(result == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+					read += result;
+				}
+				if(read != length || !inflater.finished()) throw new IllegalStateException("Payload size doesn't match, expected ["+length+"] got ["+read+"]");
+			}
+			catch(DataFormatException e) {
+				throw new IllegalStateException("Payload couldn't be decompressed", e);
+			}
+			return output;
+		}
+		
+		@Override
+		public boolean readBoolean() {
+			return data.readBoolean();
+		}
+		
+		@Override
+		public byte readByte() {
+			return data.readByte();
+		}
+		
+		@Override
+		public short readShort() {
+			return data.readShort();
+		}
+		
+		@Override
+		public int readMedium() {
+			return data.readMedium();
+		}
+		
+		@Override
+		public int readInt() {
+			return data.readInt();
+		}
+		
+		@Override
+		public int readVarInt() {
+			return data.readVarInt();
+		}
+		
+		@Override
+		public float readFloat() {
+			return data.readFloat();
+		}
+		
+		@Override
+		public double readDouble() {
+			return data.readDouble();
+		}
+		
+		@Override
+		public long readLong() {
+			return data.readLong();
+		}
+		
+		@Override
+		public char readChar() {
+			return data.readChar();
+		}
+		
+		@Override
+		public <T extends Enum<T>> T readEnum(Class<T> clz) {
+			return data.readEnum(clz);
+		}
+		
+		@Override
+		public byte[] readBytes() {
+			return data.readBytes();
+		}
+		
+		@Override
+		public String readString() {
+			if(dictionary == null) return data.readString();
+			int tag = data.readVarInt();
+			int index = tag >>> 1;
+			if((tag & 1) != 0) {
+				if(index >= dictionary.size()) throw new IllegalStateException("Unknown Dictionary index ["+index+"]");
+				return dictionary.get(index);
+			}
+			if(index > last.length()) throw new IllegalStateException("Prefix ["+index+"] is longer then the previous String");
+			String suffix = data.readString();
+			String value = index == 0 ? suffix : last.substring(0, index).concat(suffix);
+			dictionary.add(value);
+			last = value;
+			return value;
+		}
+		
+		@Override
+		public UUID readUUID() {
+			return data.readUUID();
+		}
+	}
+}
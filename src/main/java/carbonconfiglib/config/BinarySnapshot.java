@@ -0,0 +1,139 @@
+package carbonconfiglib.config;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import carbonconfiglib.api.buffer.ConfigBuffer;
+import carbonconfiglib.api.buffer.IReadBuffer;
+import carbonconfiglib.utils.FileFingerprint;
+import carbonconfiglib.utils.Helpers;
+import speiger.src.collections.objects.lists.ObjectArrayList;
+import speiger.src.collections.objects.sets.ObjectLinkedOpenHashSet;
+
+/**
+ * Copyright 2026 Speiger, Meduris
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * Binary copy of the values that were saved into a Config File, stored next to it as "name.cfg.bin".
+ * It carries the Fingerprint of the File it was saved with and the Hash of the Schema, and is only used while both still match.
+ * Anything else, like an edited File or a Snapshot that can't be read, falls back to parsing the File.
+ * Entries whose Serializer has no Buffer support are stored as their text value instead.
+ */
+final class BinarySnapshot {
+	static final int MAGIC = 0x43434253;
+	static final byte VERSION = 1;
+	
+	private BinarySnapshot() {
+	}
+	
+	static Path getFile(Path configFile) {
+		return configFile.resolveSibling(configFile.getFileName().toString().concat(".bin"));
+	}
+	
+	/**
+	 * Captures the values of all Entries that are written into the Config File, so it has to happen together with rendering the File.
+	 */
+	static byte[] capture(Config config) {
+		ConfigSchema schema = config.getSchema();
+		List<ConfigEntry<?>> entries = new ObjectArrayList<>();
+		config.collectWritten(entries);
+		try(ConfigBuffer buffer = ConfigBuffer.pooled()) {
+			buffer.writeLong(schema.getHash());
+			buffer.writeVarInt(entries.size());
+			for(int i = 0,m=entries.size();i<m;i++) {
+				ConfigEntry<?> entry = entries.get(i);
+				schema.writeId(buffer, entry);
+				int start = buffer.position();
+				try {
+					buffer.writeBoolean(true);
+					entry.serialize(buffer);
+				}
+				catch(UnsupportedOperationException e) {
+					buffer.getBuffer().position(start);
+					buffer.writeBoolean(false);
+					buffer.writeString(entry.serialize());
+				}
+			}
+			return buffer.flip().toByteArray();
+		}
+	}
+	
+	static void write(Path configFile, FileFingerprint fingerprint, byte[] values, boolean atomic) throws IOException {
+		ConfigBuffer buffer = ConfigBuffer.heap(values.length + 32);
+		buffer.writeInt(MAGIC);
+		buffer.writeByte(VERSION);
+		buffer.writeLong(fingerprint.getSize());
+		buffer.writeLong(fingerprint.getLastModified());
+		buffer.writeLong(fingerprint.getHash());
+		buffer.writeBytes(values);
+		ByteBuffer data = buffer.flip().getBuffer();
+		Path file = getFile(configFile);
+		if(atomic) Helpers.writeAtomically(file, data);
+		else Helpers.writeFully(file, data);
+	}
+	
+	/**
+	 * Stages the values of the Snapshot into the loader if the Snapshot still belongs to the Config File and the Schema of the Config.
+	 * @return false if the Config File has to be parsed instead
+	 */
+	static boolean read(Path configFile, Config config, ConfigHandler.ConfigLoader loader) {
+		try {
+			ConfigBuffer buffer = ConfigBuffer.wrap(Files.readAllBytes(getFile(configFile)));
+			if(buffer.readInt() != MAGIC || buffer.readByte() != VERSION) return false;
+			FileFingerprint fingerprint = new FileFingerprint(buffer.readLong(), buffer.readLong(), buffer.readLong());
+			//Size and modification time can stay the same after an edit, only the content tells for sure
+			FileFingerprint current = FileFingerprint.read(configFile);
+			if(!fingerprint.hasSameContent(current)) return false;
+			fingerprint = current;
+			IReadBuffer values = ConfigBuffer.wrap(buffer.readBytes());
+			ConfigSchema schema = config.getSchema();
+			if(values.readLong() != schema.getHash()) return false;
+			List<Runnable> staged = new ObjectArrayList<>();
+			Set<ConfigSection> sections = new ObjectLinkedOpenHashSet<>();
+			for(int i = 0,m=values.readVarInt();i<m;i++) {
+				ConfigEntry<?> entry = schema.readEntry(values);
+				if(entry == null) return false;
+				stage(entry, values, staged, loader);
+				for(ConfigSection section = entry.getOwner();section != null && sections.add(section);section = section.getParent());
+			}
+			//Parsing the File gives every Entry and Section in it a empty comment if they had none
+			staged.add(() -> sections.forEach(ConfigSection::parseComment));
+			loader.staged.addAll(staged);
+			loader.fingerprint = fingerprint;
+			return true;
+		}
+		catch(Exception e) {
+			//Missing or broken Snapshots are simply replaced with the next save
+			return false;
+		}
+	}
+	
+	private static <T> void stage(ConfigEntry<T> entry, IReadBuffer buffer, List<Runnable> staged, ConfigHandler.ConfigLoader loader) {
+		staged.add(entry::parseComment);
+		if(!buffer.readBoolean()) {
+			loader.stageValue(entry, buffer.readString(), staged);
+			return;
+		}
+		//Read into a copy so nothing is applied before the whole Snapshot was read
+		ConfigEntry<T> copy = entry.deepCopy();
+		copy.deserializeValue(buffer);
+		T value = copy.getValue();
+		if(!entry.canSet(value).getValue()) return;
+		staged.add(() -> entry.applyValue(value));
+	}
+}
@@ -0,0 +1,474 @@
+package carbonconfiglib.config;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import carbonconfiglib.config.ConfigEntry.BoolValue;
+import carbonconfiglib.config.ConfigEntry.DoubleValue;
+import carbonconfiglib.config.ConfigEntry.FloatValue;
+import carbonconfiglib.config.ConfigEntry.IntValue;
+import carbonconfiglib.config.ConfigEntry.LongValue;
+import carbonconfiglib.utils.SyncType;
+import speiger.src.collections.objects.maps.impl.hash.Object2ObjectOpenHashMap;
+
+/**
+ * Copyright 2026 Speiger, Meduris
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * Stores the values of all Client Synced Entries of a Config in one table, with one row per Client and one column per Entry.
+ * Numeric and boolean columns use primitive arrays, so a row can be resolved with a single lookup through {@link #getRow(UUID)}.
+ * Once created the {@link SyncedConfig}s of the Entries store their values in the table instead, so it should be created after all Entries were registered.
+ */
+public final class ClientConfigTable {
+	static final int INITIAL_ROWS = 16;
+	final ConfigSchema schema;
+	final Column[] columns;
+	final int[] columnIds;
+	final Map<UUID, Integer> rows = new Object2ObjectOpenHashMap<>();
+	UUID[] owners = new UUID[INITIAL_ROWS];
+	long[] lastAccess = new long[INITIAL_ROWS];
+	int[] freeRows = new int[INITIAL_ROWS];
+	int freeCount = 0;
+	int usedRows = 0;
+	long idleTimeout = -1L;
+	long nextEviction = Long.MAX_VALUE;
+	
+	public ClientConfigTable(Config config) {
+		schema = config.getSchema();
+		columnIds = new int[schema.size()];
+		Arrays.fill(columnIds, -1);
+		int count = 0;
+		for(int i = 0,m=schema.size();i<m;i++) {
+			if(schema.getEntry(i).getSyncType() == SyncType.CLIENT_TO_SERVER) columnIds[i] = count++;
+		}
+		columns = new Column[count];
+		for(int i = 0,m=schema.size();i<m;i++) {
+			int column = columnIds[i];
+			if(column == -1) continue;
+			ConfigEntry<?> entry = schema.getEntry(i);
+			columns[column] = createColumn(entry);
+			entry.getSyncCache().attach(this, column);
+		}
+	}
+	
+	private static Column createColumn(ConfigEntry<?> entry) {
+		if(entry instanceof IntValue) return new IntColumn(entry);
+		if(entry instanceof LongValue) return new LongColumn(entry);
+		if(entry instanceof FloatValue || entry instanceof DoubleValue) return new DoubleColumn(entry);
+		if(entry instanceof BoolValue) return new BoolColumn(entry);
+		return new ObjectColumn(entry);
+	}
+	
+	/**
+	 * Drops the rows of Clients that weren't synced or requested for the given time.
+	 * Eviction happens while syncing or when {@link #evictIdle()} is called.
+	 * A negative time disables it, which is the default.
+	 */
+	public ClientConfigTable setIdleEviction(long time, TimeUnit unit) {
+		idleTimeout = time < 0L ? -1L : unit.toNanos(time);
+		nextEviction = idleTimeout < 0L ? Long.MAX_VALUE : System.nanoTime() + idleTimeout;
+		return this;
+	}
+	
+	public int getColumns() {
+		return columns.length;
+	}
+	
+	public int getRows() {
+		return rows.size();
+	}
+	
+	/**
+	 * @return the row of the Client or -1 if the Client didn't sync anything. The row is valid until the Client is removed.
+	 */
+	public int getRow(UUID id) {
+		Integer row = rows.get(id);
+		if(row == null) return -1;
+		lastAccess[row.intValue()] = System.nanoTime();
+		return row.intValue();
+	}
+	
+	public boolean isPresent(int row, ConfigEntry<?> entry) {
+		return row >= 0 && getColumn(entry).present.get(row);
+	}
+	
+	/**
+	 * The getters return the current value of the Entry itself if the Client didn't sync a value.
+	 */
+	public int getInt(int row, IntValue entry) {
+		IntColumn column = (IntColumn)getColumn(entry);
+		return row >= 0 && column.present.get(row) ? column.values[row] : entry.get();
+	}
+	
+	public long getLong(int row, LongValue entry) {
+		LongColumn column = (LongColumn)getColumn(entry);
+		return row >= 0 && column.present.get(row) ? column.values[row] : entry.get();
+	}
+	
+	public float getFloat(int row, FloatValue entry) {
+		DoubleColumn column = (DoubleColumn)getColumn(entry);
+		return row >= 0 && column.present.get(row) ? (float)column.values[row] : entry.get();
+	}
+	
+	public double getDouble(int row, DoubleValue entry) {
+		DoubleColumn column = (DoubleColumn)getColumn(entry);
+		return row >= 0 && column.present.get(row) ? column.values[row] : entry.get();
+	}
+	
+	public boolean getBoolean(int row, BoolValue entry) {
+		BoolColumn column = (BoolColumn)getColumn(entry);
+		return row >= 0 && column.present.get(row) ? column.values.get(row) : entry.get();
+	}
+	
+	@SuppressWarnings("unchecked")
+	public <T> T getValue(int row, ConfigEntry<T> entry) {
+		Column column = getColumn(entry);
+		return row >= 0 && column.present.get(row) ? (T)column.get(row) : entry.getValue();
+	}
+	
+	/**
+	 * Removes the row of a Client, should be called when a Client disconnects.
+	 * @return true if the Client had a row
+	 */
+	public boolean remove(UUID id) {
+		Integer row = rows.remove(id);
+		if(row == null) return false;
+		removeRow(row.intValue());
+		return true;
+	}
+	
+	/**
+	 * Removes all Client values, so every Client uses the values of the Entries again.
+	 */
+	public void resetDefaults() {
+		for(Column column : columns) {
+			column.clear();
+		}
+	}
+	
+	public void clear() {
+		resetDefaults();
+		rows.clear();
+		Arrays.fill(owners, 0, usedRows, null);
+		usedRows = 0;
+		freeCount = 0;
+	}
+	
+	/**
+	 * Removes all rows that are idle for longer then the idle eviction time.
+	 * @return the amount of removed rows
+	 */
+	public int evictIdle() {
+		if(idleTimeout < 0L) return 0;
+		long now = System.nanoTime();
+		nextEviction = now + idleTimeout;
+		int removed = 0;
+		for(int i = 0;i<usedRows;i++) {
+			if(owners[i] == null || now - lastAccess[i] <= idleTimeout) continue;
+			rows.remove(owners[i]);
+			removeRow(i);
+			removed++;
+		}
+		return removed;
+	}
+	
+	private void removeRow(int row) {
+		for(Column column : columns) {
+			column.remove(row);
+		}
+		owners[row] = null;
+		freeRows[freeCount++] = row;
+	}
+	
+	private int getOrCreateRow(UUID id) {
+		Integer row = rows.get(id);
+		if(row != null) return row.intValue();
+		int result;
+		if(freeCount > 0) result = freeRows[--freeCount];
+		else {
+			if(usedRows >= owners.length) grow(owners.length << 1);
+			result = usedRows++;
+		}
+		owners[result] = id;
+		rows.put(id, result);
+		return result;
+	}
+	
+	private void grow(int capacity) {
+		owners = Arrays.copyOf(owners, capacity);
+		lastAccess = Arrays.copyOf(lastAccess, capacity);
+		freeRows = Arrays.copyOf(freeRows, capacity);
+		for(Column column : columns) {
+			column.grow(capacity);
+		}
+	}
+	
+	private Column getColumn(ConfigEntry<?> entry) {
+		int id = schema.getId(entry);
+		int column = id == -1 ? -1 : columnIds[id];
+		if(column == -1) throw new IllegalArgumentException("Entry ["+entry.getKey()+"] isn't a Client Synced Entry of this Table");
+		return columns[column];
+	}
+	
+	void store(UUID owner, int column, ConfigEntry<?> decoded) {
+		int row = getOrCreateRow(owner);
+		columns[column].store(row, decoded);
+		touch(row);
+	}
+	
+	void storeValue(UUID owner, int column, Object value) {
+		int row = getOrCreateRow(owner);
+		columns[column].set(row, value);
+		touch(row);
+	}
+	
+	private void touch(int row) {
+		long now = System.nanoTime();
+		lastAccess[row] = now;
+		if(now - nextEviction >= 0L) evictIdle();
+	}
+	
+	boolean isPresent(UUID owner, int column) {
+		Integer row = rows.get(owner);
+		return row != null && columns[column].present.get(row.intValue());
+	}
+	
+	Object getValue(UUID owner, int column) {
+		int row = getRow(owner);
+		Column data = columns[column];
+		return row >= 0 && data.present.get(row) ? data.get(row) : data.entry.getValue();
+	}
+	
+	/**
+	 * The row itself is freed once its last value was removed, so removing a Client through its Entries doesn't leak the row.
+	 */
+	boolean remove(UUID owner, int column) {
+		Integer row = rows.get(owner);
+		if(row == null || !columns[column].present.get(row.intValue())) return false;
+		columns[column].remove(row.intValue());
+		if(isEmpty(row.intValue())) {
+			rows.remove(owner);
+			removeRow(row.intValue());
+		}
+		return true;
+	}
+	
+	void clear(int column) {
+		columns[column].clear();
+		for(int i = 0;i<usedRows;i++) {
+			if(owners[i] == null || !isEmpty(i)) continue;
+			rows.remove(owners[i]);
+			removeRow(i);
+		}
+	}
+	
+	private boolean isEmpty(int row) {
+		for(Column column : columns) {
+			if(column.present.get(row)) return false;
+		}
+		return true;
+	}
+	
+	int size(int column) {
+		return columns[column].present.cardinality();
+	}
+	
+	static abstract class Column {
+		final ConfigEntry<?> entry;
+		final BitSet present = new BitSet();
+		
+		public Column(ConfigEntry<?> entry) {
+			this.entry = entry;
+		}
+		
+		void store(int row, ConfigEntry<?> decoded) {
+			set(row, decoded.getValue());
+		}
+		
+		void set(int row, Object value) {
+			present.set(row);
+		}
+		
+		void remove(int row) {
+			present.clear(row);
+		}
+		
+		void clear() {
+			present.clear();
+		}
+		
+		abstract Object get(int row);
+		abstract void grow(int capacity);
+	}
+	
+	static class IntColumn extends Column {
+		int[] values = new int[INITIAL_ROWS];
+		
+		public IntColumn(ConfigEntry<?> entry) {
+			super(entry);
+		}
+		
+		@Override
+		void store(int row, ConfigEntry<?> decoded) {
+			values[row] = ((IntValue)decoded).get();
+			present.set(row);
+		}
+		
+		@Override
+		void set(int row, Object value) {
+			values[row] = ((Integer)value).intValue();
+			present.set(row);
+		}
+		
+		@Override
+		Object get(int row) {
+			return values[row];
+		}
+		
+		@Override
+		void grow(int capacity) {
+			values = Arrays.copyOf(values, capacity);
+		}
+	}
+	
+	static class LongColumn extends Column {
+		long[] values = new long[INITIAL_ROWS];
+		
+		public LongColumn(ConfigEntry<?> entry) {
+			super(entry);
+		}
+		
+		@Override
+		void store(int row, ConfigEntry<?> decoded) {
+			values[row] = ((LongValue)decoded).get();
+			present.set(row);
+		}
+		
+		@Override
+		void set(int row, Object value) {
+			values[row] = ((Long)value).longValue();
+			present.set(row);
+		}
+		
+		@Override
+		Object get(int row) {
+			return values[row];
+		}
+		
+		@Override
+		void grow(int capacity) {
+			values = Arrays.copyOf(values, capacity);
+		}
+	}
+	
+	static class DoubleColumn extends Column {
+		final boolean isFloat;
+		double[] values = new double[INITIAL_ROWS];
+		
+		public DoubleColumn(ConfigEntry<?> entry) {
+			super(entry);
+			isFloat = entry instanceof FloatValue;
+		}
+		
+		@Override
+		void store(int row, ConfigEntry<?> decoded) {
+			values[row] = isFloat ? ((FloatValue)decoded).get() : ((DoubleValue)decoded).get();
+			present.set(row);
+		}
+		
+		@Override
+		void set(int row, Object value) {
+			values[row] = ((Number)value).doubleValue();
+			present.set(row);
+		}
+		
+		@Override
+		Object get(int row) {
+			return isFloat ? (Object)Float.valueOf((float)values[row]) : (Object)Double.valueOf(values[row]);
+		}
+		
+		@Override
+		void grow(int capacity) {
+			values = Arrays.copyOf(values, capacity);
+		}
+	}
+	
+	static class BoolColumn extends Column {
+		final BitSet values = new BitSet();
+		
+		public BoolColumn(ConfigEntry<?> entry) {
+			super(entry);
+		}
+		
+		@Override
+		void store(int row, ConfigEntry<?> decoded) {
+			values.set(row, ((BoolValue)decoded).get());
+			present.set(row);
+		}
+		
+		@Override
+		void set(int row, Object value) {
+			values.set(row, ((Boolean)value).booleanValue());
+			present.set(row);
+		}
+		
+		@Override
+		Object get(int row) {
+			return values.get(row);
+		}
+		
+		@Override
+		void grow(int capacity) {
+		}
+	}
+	
+	static class ObjectColumn extends Column {
+		Object[] values = new Object[INITIAL_ROWS];
+		
+		public ObjectColumn(ConfigEntry<?> entry) {
+			super(entry);
+		}
+		
+		@Override
+		void set(int row, Object value) {
+			values[row] = value;
+			present.set(row);
+		}
+		
+		@Override
+		void remove(int row) {
+			super.remove(row);
+			values[row] = null;
+		}
+		
+		@Override
+		void clear() {
+			super.clear();
+			Arrays.fill(values, null);
+		}
+		
+		@Override
+		Object get(int row) {
+			return values[row];
+		}
+		
+		@Override
+		void grow(int capacity) {
+			values = Arrays.copyOf(values, capacity);
+		}
+	}
+}
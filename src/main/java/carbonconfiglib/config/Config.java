@@ -1,11 +1,17 @@
 package carbonconfiglib.config;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.nio.channels.WritableByteChannel;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.StringJoiner;
 
 import carbonconfiglib.api.IEntrySettings;
+import carbonconfiglib.config.ConfigHandler.DeferredSection;
+import carbonconfiglib.config.ConfigSection.PreparedSection;
+import carbonconfiglib.utils.ChannelAppender;
 import carbonconfiglib.utils.Helpers;
 import carbonconfiglib.utils.MultilinePolicy;
 import carbonconfiglib.utils.SyncType;
@@ -31,6 +37,17 @@ import speiger.src.collections.objects.maps.interfaces.Object2ObjectMap;
 public class Config {
 	private String name;
 	private Object2ObjectMap<String, ConfigSection> sections = new Object2ObjectLinkedOpenHashMap<>();
+	private int lastLength = 16;
+	private final Object lock = new Object();
+	private volatile ConfigSnapshot snapshot = ConfigSnapshot.EMPTY;
+	private volatile boolean staleSnapshot = false;
+	private volatile ConfigSchema schema;
+	private int updateDepth = 0;
+	private boolean maybeChanged = true;
+	private boolean maybeModified = true;
+	private volatile Config template;
+	private volatile List<WeakReference<Config>> copies;
+	private Object2ObjectMap<String, DeferredSection> deferred;
 	
 	public Config(String name) {
 		if (Helpers.validateString(name)) throw new IllegalArgumentException("Config name must not be null, empty or start/end with white spaces");
@@ -39,27 +56,51 @@ public class Config {
 	
 	public ConfigSection add(ConfigSection section) {
 		if (section.getParent() != null) throw new IllegalStateException("ConfigSection must not be added to multiple sections. Section: " + section.getName());
-		sections.putIfAbsent(section.getName(), section);
+		detachCopies();
+		loadDeferred(section.getName());
+		sections().putIfAbsent(section.getName(), section.setConfig(this));
+		invalidateSchema();
 		return section;
 	}
 	
 	public ConfigSection add(String name) {
-		return sections.computeIfAbsent(name, ConfigSection::new).setUsed();
+		detachCopies();
+		loadDeferred(name);
+		return sections().computeIfAbsent(name, ConfigSection::new).setConfig(this).setUsed();
 	}
 	
 	public ConfigSection getSection(String name) {
-		return sections.get(name);
+		loadDeferred(name);
+		return sections().get(name);
+	}
+	
+	boolean hasSection(String name) {
+		return sections().containsKey(name);
+	}
+	
+	/**
+	 * Looks up a Section without creating it or loading a deferred Section.
+	 */
+	ConfigSection findSection(String[] names) {
+		ConfigSection section = sections().get(names[0]);
+		for(int i = 1;i<names.length && section != null;i++) {
+			section = section.getSubSection(names[i]);
+		}
+		return section;
 	}
 	
 	public void applyEntrySettings(IEntrySettings settings, Class<?> type, boolean children) {
-		for(ConfigSection section : sections.values()) {
+		loadDeferred();
+		for(ConfigSection section : sections().values()) {
 			section.applyEntrySettings(settings, type, children);
 		}
 	}
 	
 	ConfigSection getSectionRecursive(String[] names) {
 		if (names.length == 0) return null;
-		ConfigSection section = sections.computeIfAbsent(names[0], ConfigSection::new);
+		detachCopies();
+		loadDeferred(names[0]);
+		ConfigSection section = sections().computeIfAbsent(names[0], ConfigSection::new).setConfig(this);
 		for (int i = 1; i < names.length && section != null; i++) {
 			section = section.parseSubSection(names[i]);
 		}
@@ -67,55 +108,254 @@ public class Config {
 	}
 	
 	public List<ConfigSection> getChildren() {
-		return new ObjectArrayList<>(sections.values());
+		loadDeferred();
+		return new ObjectArrayList<>(sections().values());
 	}
 	
 	public Map<String, ConfigEntry<?>> getSyncedEntries(SyncType type) {
 		if(type == SyncType.NONE) return Collections.emptyMap();
-		Map<String, ConfigEntry<?>> result = new Object2ObjectLinkedOpenHashMap<>();
-		for (ConfigSection section : sections.values()) {
-			section.getSyncedEntries(result, type);
+		return getSchema().getSyncedEntries(type);
+	}
+	
+	/**
+	 * The Schema is compiled on first use and rebuilt after Entries or Sections were added.
+	 */
+	public ConfigSchema getSchema() {
+		ConfigSchema result = schema;
+		if(result != null) return result;
+		synchronized(lock) {
+			if(schema == null) schema = ConfigSchema.build(sections().values());
+			return schema;
+		}
+	}
+	
+	void invalidateSchema() {
+		synchronized(lock) {
+			schema = null;
 		}
-		return result;
 	}
 	
 	public String getName() {
 		return name;
 	}
 	
+	/**
+	 * Creates an empty Config that copies the Sections of this Config when it is accessed for the first time.
+	 * Sections are copied lazily as well, see {@link ConfigSection#copy()}.
+	 */
 	public Config copy() {
-		Config config = new Config(name);
-		for(ConfigSection sub : sections.values()) {
-			config.add(sub.copy());
+		loadDeferred();
+		synchronized(lock) {
+			if(template != null) return template.copy();
+			Config config = new Config(name);
+			config.template = this;
+			if(copies == null) copies = new ObjectArrayList<>();
+			else copies.removeIf(T -> T.get() == null);
+			copies.add(new WeakReference<>(config));
+			return config;
+		}
+	}
+	
+	void detachCopies() {
+		if(this.copies == null) return;
+		List<WeakReference<Config>> copies;
+		synchronized(lock) {
+			copies = this.copies;
+			this.copies = null;
+		}
+		if(copies == null) return;
+		for(WeakReference<Config> reference : copies) {
+			Config copy = reference.get();
+			if(copy != null) copy.ensureCopied();
 		}
-		return config;
+	}
+	
+	private void ensureCopied() {
+		if(template == null) return;
+		synchronized(lock) {
+			Config source = template;
+			if(source == null) return;
+			for(ConfigSection sub : source.sections().values()) {
+				ConfigSection copy = sub.copy();
+				sections.put(copy.getName(), copy.setConfig(this));
+			}
+			template = null;
+		}
+		invalidateSchema();
+	}
+	
+	private Object2ObjectMap<String, ConfigSection> sections() {
+		ensureCopied();
+		return sections;
+	}
+	
+	/**
+	 * Keeps the text of a Section that wasn't registered while the Config was loaded.
+	 * It is parsed once the Section is accessed, replacing what a previous load deferred for it.
+	 */
+	void defer(String name, DeferredSection section) {
+		if(deferred == null) deferred = new Object2ObjectLinkedOpenHashMap<>();
+		deferred.put(name, section);
+		flagChanges();
+	}
+	
+	private void loadDeferred(String name) {
+		if(deferred == null) return;
+		DeferredSection section = deferred.remove(name);
+		if(section == null) return;
+		if(deferred.isEmpty()) deferred = null;
+		section.load(this);
+		invalidateSchema();
+	}
+	
+	private void loadDeferred() {
+		if(deferred == null) return;
+		for(String name : new ObjectArrayList<>(deferred.keySet())) {
+			loadDeferred(name);
+		}
+	}
+	
+	private boolean hasDeferredEntries() {
+		if(deferred == null) return false;
+		for(DeferredSection section : deferred.values()) {
+			if(section.hasEntries) return true;
+		}
+		return false;
 	}
 	
 	public void resetDefault() {
-		sections.values().forEach(ConfigSection::resetDefault);
+		loadDeferred();
+		beginUpdate();
+		try {
+			sections().values().forEach(ConfigSection::resetDefault);
+		}
+		finally {
+			endUpdate();
+		}
+	}
+	
+	/**
+	 * Consistent view of all values, values read from the same Snapshot always belong to the same Config state, even while another thread reloads the Config.
+	 * Wait-free unless values were set outside of a reload since the last call, then the Snapshot is rebuilt once.
+	 * Plain getters like {@link ConfigEntry.IntValue#get()} read the current value and can see a reload that is only partially applied.
+	 */
+	public ConfigSnapshot getSnapshot() {
+		if(!staleSnapshot) return snapshot;
+		synchronized(lock) {
+			if(staleSnapshot && updateDepth == 0) rebuildSnapshot();
+			return snapshot;
+		}
+	}
+	
+	/**
+	 * Starts a group of changes that is published as a single Snapshot once the matching {@link #endUpdate()} was called.
+	 * The outermost call also captures the current state first, so Entries that were registered since the last Snapshot are covered during the update.
+	 */
+	void beginUpdate() {
+		synchronized(lock) {
+			if(updateDepth++ == 0) rebuildSnapshot();
+		}
+	}
+	
+	void endUpdate() {
+		synchronized(lock) {
+			if(--updateDepth == 0) rebuildSnapshot();
+		}
+	}
+	
+	void publishSnapshot() {
+		synchronized(lock) {
+			if(updateDepth == 0) rebuildSnapshot();
+		}
 	}
 	
+	/**
+	 * Only flags the Snapshot, it is rebuilt by the next {@link #getSnapshot()} so setting values stays cheap.
+	 */
+	void onValueChanged() {
+		staleSnapshot = true;
+	}
+	
+	private void rebuildSnapshot() {
+		//Cleared before the values are read, so a value set while building flags the new Snapshot again
+		staleSnapshot = false;
+		List<ConfigEntry<?>> entries = new ObjectArrayList<>();
+		for(ConfigSection section : sections().values()) {
+			section.collectEntries(entries);
+		}
+		snapshot = ConfigSnapshot.build(snapshot.generation + 1, entries);
+	}
+	
+	void collectWritten(List<ConfigEntry<?>> output) {
+		for(ConfigSection section : sections().values()) {
+			section.collectWritten(output);
+		}
+	}
+	
+	void flagChanges() {
+		maybeChanged = true;
+		maybeModified = true;
+	}
+	
+	/**
+	 * Only Sections and Entries that were flagged since the last check are compared, so an untouched Config is a single field read.
+	 */
 	public boolean hasChanged() {
-		for(ConfigSection section : sections.values()) {
-			if(section.hasChanged()) return true;
+		if(!maybeChanged) return false;
+		maybeChanged = false;
+		for(ConfigSection section : sections().values()) {
+			if(section.hasChanged()) {
+				maybeChanged = true;
+				return true;
+			}
 		}
 		return false;
 	}
 	
 	public boolean isDefault() {
-		for(ConfigSection section : sections.values()) {
-			if(!section.isDefault()) return false;
+		//Entries that aren't registered are never default, deferred ones included
+		if(hasDeferredEntries()) return false;
+		if(!maybeModified) return true;
+		maybeModified = false;
+		for(ConfigSection section : sections().values()) {
+			if(!section.isDefault()) {
+				maybeModified = true;
+				return false;
+			}
 		}
 		return true;
 	}
 	
 	public String serialize(MultilinePolicy policy) {
-		if (sections.size() == 0) return "";
-		StringJoiner joiner = new StringJoiner("\n\n");
-		for(ConfigSection section : sections.values()) {
-			String val = section.serialize(policy);
-			if(val != null) joiner.add(val);			
+		if (sections().size() == 0) return "";
+		StringBuilder builder = new StringBuilder(lastLength);
+		try { serialize(builder, policy); }
+		catch(IOException e) { throw new UncheckedIOException(e); }
+		lastLength = Math.max(16, builder.length());
+		return builder.toString();
+	}
+	
+	/**
+	 * Streams the Config File into the output without building the whole text first.
+	 * The output is the same as {@link #serialize(MultilinePolicy)}.
+	 */
+	public void serialize(Appendable output, MultilinePolicy policy) throws IOException {
+		boolean first = true;
+		for(ConfigSection section : sections().values()) {
+			PreparedSection prepared = section.prepare(policy, 0);
+			if(prepared == null) continue;
+			if(!first) output.append("\n\n");
+			prepared.write(output);
+			first = false;
 		}
-		return joiner.toString();
+	}
+	
+	/**
+	 * Streams the Config File as UTF-8 into the Channel, the Channel is not closed.
+	 */
+	public void serialize(WritableByteChannel channel, MultilinePolicy policy) throws IOException {
+		ChannelAppender output = new ChannelAppender(channel);
+		serialize(output, policy);
+		output.finish();
 	}
 }
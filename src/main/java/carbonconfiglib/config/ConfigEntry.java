@@ -1,5 +1,7 @@
 package carbonconfiglib.config;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Array;
 import java.util.Arrays;
 import java.util.Collection;
@@ -27,6 +29,7 @@ import carbonconfiglib.api.buffer.IWriteBuffer;
 import carbonconfiglib.utils.Helpers;
 import carbonconfiglib.utils.MultilinePolicy;
 import carbonconfiglib.utils.ParseResult;
+import carbonconfiglib.utils.ParsedCollections.ParsedMap;
 import carbonconfiglib.utils.SyncType;
 import carbonconfiglib.utils.structure.IStructuredData;
 import carbonconfiglib.utils.structure.IStructuredData.EntryDataType;
@@ -34,6 +37,7 @@ import carbonconfiglib.utils.structure.IStructuredData.SimpleData;
 import carbonconfiglib.utils.structure.StructureCompound.CompoundData;
 import carbonconfiglib.utils.structure.StructureList.ListBuilder;
 import carbonconfiglib.utils.structure.StructureList.ListData;
+import carbonconfiglib.utils.structure.StructureParser;
 import speiger.src.collections.objects.lists.ObjectArrayList;
 import speiger.src.collections.objects.utils.ObjectLists;
 
@@ -54,7 +58,8 @@ import speiger.src.collections.objects.utils.ObjectLists;
  */
 public abstract class ConfigEntry<T> {
 	private String key;
-	private T value;
+	//Primitive Entries store their own value, so outside of the setters this is only read through getValue()
+	private volatile T value;
 	private T defaultValue;
 	private T lastValue;
 	private String[] comment;
@@ -68,6 +73,13 @@ public abstract class ConfigEntry<T> {
 	private IConfigSelector<T> selector = null;
 	private SyncedConfig<ConfigEntry<T>> syncCache;
 	private List<ISuggestionProvider> providers = new ObjectArrayList<>();
+	private ConfigSection owner;
+	private String header;
+	private int headerIndent = -1;
+	private boolean changed = true;
+	private boolean modified = false;
+	volatile int changeCount = 0;
+	int schemaId = -1;
 
 	public ConfigEntry(String key, T defaultValue, String... comment) {
 		if (Helpers.validateString(key))
@@ -87,12 +99,17 @@ public abstract class ConfigEntry<T> {
 	}
 	
 	void parseComment(String...comment) {
-		if(this.comment == null) this.comment = Helpers.validateComments(comment);
+		if(this.comment != null) return;
+		detachCopies();
+		this.comment = Helpers.validateComments(comment);
+		markDirty();
 	}
 	
 	@SuppressWarnings("unchecked")
 	public <S extends ConfigEntry<T>> S setComment(String... comment) {
+		detachCopies();
 		this.comment = Helpers.validateComments(comment);
+		markDirty();
 		return (S)this;
 	}
 	
@@ -136,6 +153,8 @@ public abstract class ConfigEntry<T> {
 	public ConfigEntry<T> set(T value) {
 		if (value != null) {
 			this.value = value;
+			markValueDirty();
+			publishValue();
 		}
 		return this;
 	}
@@ -152,6 +171,7 @@ public abstract class ConfigEntry<T> {
 	
 	@SuppressWarnings("unchecked")
 	public final <S extends ConfigEntry<T>> S addSuggestionProvider(ISuggestionProvider provider) {
+		detachCopies();
 		providers.add(provider);
 		return (S)this;
 	}
@@ -181,6 +201,7 @@ public abstract class ConfigEntry<T> {
 	
 	@SuppressWarnings("unchecked")
 	public final <S extends ConfigEntry<T>> S clearSuggestions() {
+		detachCopies();
 		providers.clear();
 		return (S)this;
 	}
@@ -190,26 +211,102 @@ public abstract class ConfigEntry<T> {
 	}
 	
 	final ConfigEntry<T> setUsed() {
+		if(used) return this;
 		used = true;
+		markDirty();
 		return this;
 	}
 	
 	//TODO discard this with a proper system where replacements are done manually
 	final ConfigEntry<T> setLoaded() {
+		if(wasLoaded) return this;
+		detachCopies();
 		wasLoaded = true;
+		markDirty();
 		return this;
 	}
 	
+	final void setOwner(ConfigSection owner) {
+		this.owner = owner;
+		if(owner != null) owner.flagChanges();
+	}
+	
+	final ConfigSection getOwner() {
+		return owner;
+	}
+	
+	/**
+	 * Invalidates the cached text of the owning Section, has to be called whenever something changes that is visible in the Config File.
+	 * This includes the cached comments and limitations of this Entry.
+	 */
+	protected final void markDirty() {
+		header = null;
+		markValueDirty();
+	}
+	
+	/**
+	 * Has to be called before the settings of this Entry change.
+	 * Copies of the owning Section that weren't accessed yet are filled first, so they keep the settings they were copied with.
+	 */
+	protected final void detachCopies() {
+		if(owner != null) owner.detachCopies();
+	}
+	
+	/**
+	 * Like {@link #markDirty()} but keeps the cached comments and limitations, for changes that only affect the value.
+	 * Also flags the Entry and its Sections as possibly changed, so {@link #hasChanged()} and {@link #isDefault()} only compare values of flagged Entries.
+	 * The change is counted as well, which is what the {@link SyncTracker} looks at.
+	 */
+	protected final void markValueDirty() {
+		changed = true;
+		modified = true;
+		changeCount++;
+		if(owner != null) {
+			owner.markDirty();
+			owner.flagChanges();
+		}
+	}
+	
+	protected final void publishValue() {
+		Config config = owner == null ? null : owner.getConfig();
+		if(config != null) config.onValueChanged();
+	}
+	
 	public final boolean isNotHidden() {
 		return !hidden || wasLoaded;
 	}
 	
+	/**
+	 * Values are only compared if the Entry was flagged since it last matched, the flag is cleared before comparing so a concurrent change flags it again.
+	 */
 	public final boolean hasChanged() {
-		return used && (value.getClass().isArray() ? !Objects.deepEquals(lastValue, value) : !Objects.equals(lastValue, value));
+		if(!used || !changed) return false;
+		changed = false;
+		if(matchesSynced()) return false;
+		changed = true;
+		return true;
 	}
 	
 	public final boolean isDefault() {
-		return used && (value.getClass().isArray() ? Objects.deepEquals(defaultValue, value) : Objects.equals(defaultValue, value));
+		if(!used) return false;
+		if(!modified) return true;
+		modified = false;
+		if(matchesDefault()) return true;
+		modified = true;
+		return false;
+	}
+	
+	/**
+	 * Primitive Entries override these to compare their values without boxing.
+	 */
+	protected boolean matchesSynced() {
+		T value = getValue();
+		return value.getClass().isArray() ? Objects.deepEquals(lastValue, value) : Objects.equals(lastValue, value);
+	}
+	
+	protected boolean matchesDefault() {
+		T value = getValue();
+		return value.getClass().isArray() ? Objects.deepEquals(defaultValue, value) : Objects.equals(defaultValue, value);
 	}
 	
 	public final boolean areSuggestionsForced() {
@@ -229,16 +326,27 @@ public abstract class ConfigEntry<T> {
 	}
 	
 	public final void onSynced() {
-		lastValue = value;
+		changed = false;
+		storeSynced();
+	}
+	
+	protected void storeSynced() {
+		lastValue = getValue();
 	}
 	
 	final SyncType getSyncType() {
 		return syncCache != null ? SyncType.CLIENT_TO_SERVER : (serverSync ? SyncType.SERVER_TO_CLIENT : SyncType.NONE);
 	}
 	
+	final SyncedConfig<?> getSyncCache() {
+		return syncCache;
+	}
+	
 	@SuppressWarnings("unchecked")
 	public final <S extends ConfigEntry<T>> S setHidden() {
+		detachCopies();
 		hidden = true;
+		markDirty();
 		return (S)this;
 	}
 	
@@ -264,26 +372,34 @@ public abstract class ConfigEntry<T> {
 	
 	@SuppressWarnings("unchecked")
 	public final <S extends ConfigEntry<T>> S setSelection(IConfigSelector<T> selector) {
+		detachCopies();
 		this.selector = selector;
 		forcedSuggestions = true;
+		markDirty();
 		return (S)this;
 	}
 	
 	@SuppressWarnings("unchecked")
 	public final <S extends ConfigEntry<T>> S setRequiredReload(IReloadMode mode) {
+		detachCopies();
 		this.reload = mode;
+		markDirty();
 		return (S)this;
 	}
 	
 	@SuppressWarnings("unchecked")
 	public final <S extends ConfigEntry<T>> S addSettings(IEntrySettings settings) {
+		detachCopies();
 		this.settings = IEntrySettings.merge(this.settings, settings);
+		markDirty();
 		return (S)this;
 	}
 	
 	@SuppressWarnings("unchecked")
 	public final <S extends ConfigEntry<T>> S setSettings(IEntrySettings settings) {
+		detachCopies();
 		this.settings = settings;
+		markDirty();
 		return (S)this;
 	}
 	
@@ -310,7 +426,11 @@ public abstract class ConfigEntry<T> {
 			throw new IllegalArgumentException("ConfigEntry key must not be null, empty or start/end with white spaces");
 		if (key.contains(":") || key.contains("="))
 			throw new IllegalArgumentException("ConfigEntry key must not contain any ':' or '=' signs. Key: " + key);
+		detachCopies();
 		this.key = key;
+		//The Schema stores the paths of the Entries
+		if(owner != null) owner.onStructureChanged();
+		markDirty();
 		return this;
 	}
 	
@@ -320,13 +440,19 @@ public abstract class ConfigEntry<T> {
 		ParseResult<T> result = parseValue(value);
 		if(result.hasError()) return result.withDefault(value);
 		if(!canSet(result.getValue()).getValue()) return result.withDefault(value);
-		set(result.getValue());
-		setLoaded();
+		applyValue(result.getValue());
 		return ParseResult.success(value);
 	}
 	
+	final void applyValue(T value) {
+		set(value);
+		setLoaded();
+	}
+	
 	public void resetDefault() {
 		value = defaultValue;
+		markValueDirty();
+		publishValue();
 	}
 	
 	public String serializeDefault() {
@@ -334,7 +460,7 @@ public abstract class ConfigEntry<T> {
 	}
 	
 	public String serialize() {
-		return serializedValue(MultilinePolicy.DISABLED, value);
+		return serializedValue(MultilinePolicy.DISABLED, getValue());
 	}
 	
 	protected String serializedValue(MultilinePolicy policy, T value) {
@@ -368,51 +494,73 @@ public abstract class ConfigEntry<T> {
 	public abstract String getLimitations();
 	
 	public final String serialize(MultilinePolicy policy, int indentationLevel) {
-		String indentation = '\n' + Helpers.generateIndent(indentationLevel);
+		StringBuilder builder = new StringBuilder();
+		serialize(builder, policy, indentationLevel);
+		return builder.toString();
+	}
+	
+	final void serialize(StringBuilder builder, MultilinePolicy policy, int indentationLevel) {
+		try { serialize((Appendable)builder, policy, indentationLevel); }
+		catch(IOException e) { throw new UncheckedIOException(e); }
+	}
+	
+	/**
+	 * Appends the Entry to the output. Comments, limitations and the key are rendered once per indentation level and reused until {@link #markDirty()} is called.
+	 */
+	public final void serialize(Appendable output, MultilinePolicy policy, int indentationLevel) throws IOException {
+		String header = this.header;
+		if(header == null || headerIndent != indentationLevel) {
+			header = renderHeader(indentationLevel);
+			this.header = header;
+			this.headerIndent = indentationLevel;
+		}
+		output.append(header);
+		String line = serializedValue(policy, getValue());
+		if(policy != MultilinePolicy.DISABLED && line.indexOf('\n') != -1) {
+			String indent = Helpers.generateLineIndent(indentationLevel+1);
+			Helpers.appendLines(output.append("<<<").append(indent), line, indent);
+			output.append(Helpers.generateLineIndent(indentationLevel)).append(">>>");
+		}
+		else {
+			output.append(line);
+		}
+	}
+	
+	private String renderHeader(int indentationLevel) {
+		String indentation = Helpers.generateLineIndent(indentationLevel);
 		StringBuilder builder = new StringBuilder();
 		if (comment != null && comment.length > 0) {
 			builder.append('\n');
+			String separator = indentation + "# ";
 			for(int i = 0;i<comment.length;i++) {
-				builder.append(indentation);
-				builder.append("# ");
-				builder.append(comment[i].replaceAll("\\R", indentation + "# "));
+				Helpers.appendLines(builder.append(separator), comment[i], separator);
 			}
 		}
-		appendLimitation(getLimitations(), builder, indentation);
+		String separator = indentation + "#\u200b ";
+		appendLimitation(getLimitations(), builder, separator);
 		if(reload instanceof ILimitationSerializer) {
-			appendLimitation(((ILimitationSerializer)reload).getLimitation(), builder, indentation);
+			appendLimitation(((ILimitationSerializer)reload).getLimitation(), builder, separator);
 		}
 		if(settings != null) {
-			settings.forEachType(ILimitationSerializer.class, T -> appendLimitation(T.getLimitation(), builder, indentation));
+			settings.forEachType(ILimitationSerializer.class, T -> appendLimitation(T.getLimitation(), builder, separator));
 		}
 		if(selector != null) {
-			appendLimitation(selector.getLimitation(), builder, indentation);
+			appendLimitation(selector.getLimitation(), builder, separator);
 		}
 		builder.append(indentation);
 		builder.append(getPrefix());
 		builder.append(':');
 		builder.append(key);
 		builder.append('=');
-		String line = serializedValue(policy, value);
-		if(policy != MultilinePolicy.DISABLED && line.contains("\n")) {
-			String indent = "\n"+Helpers.generateIndent(indentationLevel+1);
-			builder.append("<<<").append(indent).append(line.replaceAll("\\R", indent));
-			builder.append(indentation).append(">>>");
-		}
-		else {
-			builder.append(line);
-		}
 		return builder.toString();
 	}
 	
-	private final void appendLimitation(String input, StringBuilder builder, String indentation) {
+	private final void appendLimitation(String input, StringBuilder builder, String separator) {
 		if(input == null) return;
 		input = input.trim();
 		if(input.isEmpty()) return;
 		if(builder.length() == 0) builder.append("\n");
-		builder.append(indentation);
-		builder.append("#").append('\u200b').append(" ");
-		builder.append(input.replaceAll("\\R", indentation + "#\u200b "));
+		Helpers.appendLines(builder.append(separator), input, separator);
 	}
 	
 	public abstract void serialize(IWriteBuffer buffer);
@@ -561,30 +709,42 @@ public abstract class ConfigEntry<T> {
 	}
 	
 	public static class IntValue extends BasicConfigEntry<Integer> {
+		private volatile int value;
+		private final int defaultValue;
+		private int lastValue;
+		private boolean synced;
 		private int min = Integer.MIN_VALUE;
 		private int max = Integer.MAX_VALUE;
 		
 		public IntValue(String key, Integer defaultValue, String... comment) {
 			super(key, defaultValue, comment);
+			this.value = defaultValue;
+			this.defaultValue = defaultValue;
 		}
 		
 		public IntValue(String key, Integer defaultValue) {
-			super(key, defaultValue);
+			this(key, defaultValue, new String[0]);
 		}
 		
 		public IntValue setMin(int min) {
+			detachCopies();
 			this.min = min;
+			markDirty();
 			return this;
 		}
 		
 		public IntValue setMax(int max) {
+			detachCopies();
 			this.max = max;
+			markDirty();
 			return this;
 		}
 		
 		public IntValue setRange(int min, int max) {
+			detachCopies();
 			this.min = min;
 			this.max = max;
+			markDirty();
 			return this;
 		}
 		
@@ -601,12 +761,51 @@ public abstract class ConfigEntry<T> {
 			return new IntValue(getKey(), getDefault(), getComment()).setRange(min, max);
 		}
 		
+		@Override
+		public Integer getValue() {
+			return value;
+		}
+		
 		@Override
 		public IntValue set(Integer value) {
-			super.set(Helpers.clamp(value, min, max));
+			return set(value.intValue());
+		}
+		
+		public IntValue set(int value) {
+			this.value = Helpers.clamp(value, min, max);
+			markValueDirty();
+			publishValue();
 			return this;
 		}
 		
+		@Override
+		public void resetDefault() {
+			value = defaultValue;
+			markValueDirty();
+			publishValue();
+		}
+		
+		@Override
+		protected boolean matchesSynced() {
+			return synced && lastValue == value;
+		}
+		
+		@Override
+		protected boolean matchesDefault() {
+			return defaultValue == value;
+		}
+		
+		@Override
+		protected void storeSynced() {
+			lastValue = value;
+			synced = true;
+		}
+		
+		@Override
+		public String serialize() {
+			return String.valueOf(value);
+		}
+		
 		@Override
 		public ParseResult<Boolean> canSet(Integer value) {
 			ParseResult<Boolean> result = super.canSet(value);
@@ -637,7 +836,7 @@ public abstract class ConfigEntry<T> {
 		}
 		
 		public int get() {
-			return getValue().intValue();
+			return value;
 		}
 		
 		@Override
@@ -663,30 +862,42 @@ public abstract class ConfigEntry<T> {
 	}
 	
 	public static class LongValue extends BasicConfigEntry<Long> {
+		private volatile long value;
+		private final long defaultValue;
+		private long lastValue;
+		private boolean synced;
 		private long min = Long.MIN_VALUE;
 		private long max = Long.MAX_VALUE;
 		
 		public LongValue(String key, Long defaultValue, String... comment) {
 			super(key, defaultValue, comment);
+			this.value = defaultValue;
+			this.defaultValue = defaultValue;
 		}
 		
 		public LongValue(String key, Long defaultValue) {
-			super(key, defaultValue);
+			this(key, defaultValue, new String[0]);
 		}
 		
 		public LongValue setMin(long min) {
+			detachCopies();
 			this.min = min;
+			markDirty();
 			return this;
 		}
 		
 		public LongValue setMax(long max) {
+			detachCopies();
 			this.max = max;
+			markDirty();
 			return this;
 		}
 		
 		public LongValue setRange(long min, long max) {
+			detachCopies();
 			this.min = min;
 			this.max = max;
+			markDirty();
 			return this;
 		}
 		
@@ -703,12 +914,51 @@ public abstract class ConfigEntry<T> {
 			return new LongValue(getKey(), getDefault(), getComment()).setRange(min, max);
 		}
 		
+		@Override
+		public Long getValue() {
+			return value;
+		}
+		
 		@Override
 		public LongValue set(Long value) {
-			super.set(Helpers.clamp(value, min, max));
+			return set(value.longValue());
+		}
+		
+		public LongValue set(long value) {
+			this.value = Helpers.clamp(value, min, max);
+			markValueDirty();
+			publishValue();
 			return this;
 		}
 		
+		@Override
+		public void resetDefault() {
+			value = defaultValue;
+			markValueDirty();
+			publishValue();
+		}
+		
+		@Override
+		protected boolean matchesSynced() {
+			return synced && lastValue == value;
+		}
+		
+		@Override
+		protected boolean matchesDefault() {
+			return defaultValue == value;
+		}
+		
+		@Override
+		protected void storeSynced() {
+			lastValue = value;
+			synced = true;
+		}
+		
+		@Override
+		public String serialize() {
+			return String.valueOf(value);
+		}
+		
 		@Override
 		public ParseResult<Boolean> canSet(Long value) {
 			ParseResult<Boolean> result = super.canSet(value);
@@ -739,7 +989,7 @@ public abstract class ConfigEntry<T> {
 		}
 		
 		public long get() {
-			return getValue().longValue();
+			return value;
 		}
 		
 		@Override
@@ -765,30 +1015,42 @@ public abstract class ConfigEntry<T> {
 	}
 	
 	public static class FloatValue extends BasicConfigEntry<Float> {
+		private volatile float value;
+		private final float defaultValue;
+		private float lastValue;
+		private boolean synced;
 		private float min = -Float.MAX_VALUE;
 		private float max = Float.MAX_VALUE;
 		
 		public FloatValue(String key, Float defaultValue, String... comment) {
 			super(key, defaultValue, comment);
+			this.value = defaultValue;
+			this.defaultValue = defaultValue;
 		}
 		
 		public FloatValue(String key, Float defaultValue) {
-			super(key, defaultValue);
+			this(key, defaultValue, new String[0]);
 		}
 		
 		public FloatValue setMin(float min) {
+			detachCopies();
 			this.min = min;
+			markDirty();
 			return this;
 		}
 		
 		public FloatValue setMax(float max) {
+			detachCopies();
 			this.max = max;
+			markDirty();
 			return this;
 		}
 		
 		public FloatValue setRange(float min, float max) {
+			detachCopies();
 			this.min = min;
 			this.max = max;
+			markDirty();
 			return this;
 		}
 		
@@ -812,12 +1074,51 @@ public abstract class ConfigEntry<T> {
 			return ParseResult.result(value >= min && value <= max, IllegalArgumentException::new, "Value ["+value+"] has to be within ["+min+" ~ "+max+"]");
 		}
 		
+		@Override
+		public Float getValue() {
+			return value;
+		}
+		
 		@Override
 		public FloatValue set(Float value) {
-			super.set(Helpers.clamp(value, min, max));
+			return set(value.floatValue());
+		}
+		
+		public FloatValue set(float value) {
+			this.value = Helpers.clamp(value, min, max);
+			markValueDirty();
+			publishValue();
 			return this;
 		}
 		
+		@Override
+		public void resetDefault() {
+			value = defaultValue;
+			markValueDirty();
+			publishValue();
+		}
+		
+		@Override
+		protected boolean matchesSynced() {
+			return synced && Float.floatToIntBits(lastValue) == Float.floatToIntBits(value);
+		}
+		
+		@Override
+		protected boolean matchesDefault() {
+			return Float.floatToIntBits(defaultValue) == Float.floatToIntBits(value);
+		}
+		
+		@Override
+		protected void storeSynced() {
+			lastValue = value;
+			synced = true;
+		}
+		
+		@Override
+		public String serialize() {
+			return String.valueOf(value);
+		}
+		
 		@Override
 		public char getPrefix() {
 			return 'F';
@@ -829,7 +1130,7 @@ public abstract class ConfigEntry<T> {
 		}
 		
 		public float get() {
-			return getValue().floatValue();
+			return value;
 		}
 		
 		@Override
@@ -867,30 +1168,42 @@ public abstract class ConfigEntry<T> {
 	}
 	
 	public static class DoubleValue extends BasicConfigEntry<Double> {
+		private volatile double value;
+		private final double defaultValue;
+		private double lastValue;
+		private boolean synced;
 		private double min = -Double.MAX_VALUE;
 		private double max = Double.MAX_VALUE;
 		
 		public DoubleValue(String key, Double defaultValue, String... comment) {
 			super(key, defaultValue, comment);
+			this.value = defaultValue;
+			this.defaultValue = defaultValue;
 		}
 		
 		public DoubleValue(String key, Double defaultValue) {
-			super(key, defaultValue);
+			this(key, defaultValue, new String[0]);
 		}
 		
 		public DoubleValue setMin(double min) {
+			detachCopies();
 			this.min = min;
+			markDirty();
 			return this;
 		}
 		
 		public DoubleValue setMax(double max) {
+			detachCopies();
 			this.max = max;
+			markDirty();
 			return this;
 		}
 		
 		public DoubleValue setRange(double min, double max) {
+			detachCopies();
 			this.min = min;
 			this.max = max;
+			markDirty();
 			return this;
 		}
 		
@@ -914,12 +1227,51 @@ public abstract class ConfigEntry<T> {
 			return ParseResult.result(value >= min && value <= max, IllegalArgumentException::new, "Value ["+value+"] has to be within ["+min+" ~ "+max+"]");
 		}
 		
+		@Override
+		public Double getValue() {
+			return value;
+		}
+		
 		@Override
 		public DoubleValue set(Double value) {
-			super.set(Helpers.clamp(value, min, max));
+			return set(value.doubleValue());
+		}
+		
+		public DoubleValue set(double value) {
+			this.value = Helpers.clamp(value, min, max);
+			markValueDirty();
+			publishValue();
 			return this;
 		}
 		
+		@Override
+		public void resetDefault() {
+			value = defaultValue;
+			markValueDirty();
+			publishValue();
+		}
+		
+		@Override
+		protected boolean matchesSynced() {
+			return synced && Double.doubleToLongBits(lastValue) == Double.doubleToLongBits(value);
+		}
+		
+		@Override
+		protected boolean matchesDefault() {
+			return Double.doubleToLongBits(defaultValue) == Double.doubleToLongBits(value);
+		}
+		
+		@Override
+		protected void storeSynced() {
+			lastValue = value;
+			synced = true;
+		}
+		
+		@Override
+		public String serialize() {
+			return String.valueOf(value);
+		}
+		
 		@Override
 		public char getPrefix() {
 			return 'D';
@@ -931,7 +1283,7 @@ public abstract class ConfigEntry<T> {
 		}
 		
 		public double get() {
-			return getValue().doubleValue();
+			return value;
 		}
 		
 		@Override
@@ -969,12 +1321,19 @@ public abstract class ConfigEntry<T> {
 	}
 	
 	public static class BoolValue extends BasicConfigEntry<Boolean> {
+		private volatile boolean value;
+		private final boolean defaultValue;
+		private boolean lastValue;
+		private boolean synced;
+		
 		public BoolValue(String key, Boolean defaultValue, String... comment) {
 			super(key, defaultValue, comment);
+			this.value = defaultValue;
+			this.defaultValue = defaultValue;
 		}
 		
 		public BoolValue(String key, Boolean defaultValue) {
-			super(key, defaultValue);
+			this(key, defaultValue, new String[0]);
 		}
 		
 		@Override
@@ -983,7 +1342,53 @@ public abstract class ConfigEntry<T> {
 		}
 		
 		public boolean get() {
-			return getValue().booleanValue();
+			return value;
+		}
+		
+		@Override
+		public Boolean getValue() {
+			return value;
+		}
+		
+		@Override
+		public BoolValue set(Boolean value) {
+			if(value != null) set(value.booleanValue());
+			return this;
+		}
+		
+		public BoolValue set(boolean value) {
+			this.value = value;
+			markValueDirty();
+			publishValue();
+			return this;
+		}
+		
+		@Override
+		public void resetDefault() {
+			value = defaultValue;
+			markValueDirty();
+			publishValue();
+		}
+		
+		@Override
+		protected boolean matchesSynced() {
+			return synced && lastValue == value;
+		}
+		
+		@Override
+		protected boolean matchesDefault() {
+			return defaultValue == value;
+		}
+		
+		@Override
+		protected void storeSynced() {
+			lastValue = value;
+			synced = true;
+		}
+		
+		@Override
+		public String serialize() {
+			return String.valueOf(value);
 		}
 		
 		@Override
@@ -1421,7 +1826,10 @@ public abstract class ConfigEntry<T> {
 		
 		@Override
 		public ParseResult<T> parseValue(String value) {
-			return serializer.deserialize(serializer.getFormat().parse(value));
+			StructureParser parser = new StructureParser(value);
+			ParseResult<T> result = serializer.deserialize(parser.parseCompound(serializer.getFormat(), 0, value.length()));
+			//Malformed structures are parsed as far as possible, the problem is only reported if that wasn't enough
+			return result.hasError() && parser.hasError() ? result.onlyError(parser.getError()) : result;
 		}
 		
 		@Override
@@ -1472,10 +1880,15 @@ public abstract class ConfigEntry<T> {
 		@Override
 		public ParseResult<List<T>> parseValue(String value) {
 			List<T> result = new ObjectArrayList<>();
-			for(String s : Helpers.splitCompoundArray(value)) {
-				ParseResult<T> entry = serializer.deserialize(serializer.getFormat().parse(s));
+			ParseResult<T> failed = null;
+			StructureParser parser = new StructureParser(value);
+			for(ParsedMap map : parser.parseCompounds(serializer.getFormat())) {
+				ParseResult<T> entry = serializer.deserialize(map);
 				if(entry.isValid()) result.add(entry.getValue());
+				else if(failed == null) failed = entry;
 			}
+			//Invalid elements are skipped like always, unless they were caused by a malformed structure
+			if(failed != null && parser.hasError()) return failed.onlyError(parser.getError());
 			return ParseResult.success(result);
 		}
 		
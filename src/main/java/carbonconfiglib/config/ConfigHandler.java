@@ -1,12 +1,19 @@
 package carbonconfiglib.config;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import carbonconfiglib.api.ConfigType;
 import carbonconfiglib.api.IConfigProxy;
@@ -19,14 +26,21 @@ import carbonconfiglib.config.ConfigEntry.IntValue;
 import carbonconfiglib.config.ConfigEntry.LongValue;
 import carbonconfiglib.config.ConfigEntry.StringValue;
 import carbonconfiglib.config.ConfigEntry.TempValue;
+import carbonconfiglib.config.ConfigTokenizer.ITokenListener;
 import carbonconfiglib.utils.AutomationType;
+import carbonconfiglib.utils.ChannelAppender;
+import carbonconfiglib.utils.FileFingerprint;
+import carbonconfiglib.utils.FileFingerprint.HashingInputStream;
 import carbonconfiglib.utils.Helpers;
+import carbonconfiglib.utils.Helpers.IChannelTask;
 import carbonconfiglib.utils.MultilinePolicy;
 import carbonconfiglib.utils.ParseExpection;
 import carbonconfiglib.utils.ParseResult;
 import speiger.src.collections.chars.maps.impl.hash.Char2ObjectOpenHashMap;
 import speiger.src.collections.chars.maps.interfaces.Char2ObjectMap;
 import speiger.src.collections.objects.lists.ObjectArrayList;
+import speiger.src.collections.objects.maps.impl.hash.Object2ObjectLinkedOpenHashMap;
+import speiger.src.collections.objects.maps.interfaces.Object2ObjectMap;
 
 /**
  * Copyright 2023 Speiger, Meduris
@@ -48,7 +62,18 @@ public final class ConfigHandler {
 	private Path configFile;
 	private boolean isLoaded;
 	private boolean registered;
-	private int wasSaving = 0;
+	private volatile FileFingerprint fingerprint;
+	private long mappedThreshold = -1L;
+	private boolean atomicSaving;
+	private boolean lazyLoading;
+	private boolean binarySnapshot;
+	private long saveDelay = -1L;
+	private final Object saveLock = new Object();
+	private final Object writeLock = new Object();
+	private Path pendingFile;
+	private String pendingSave;
+	private byte[] pendingSnapshot;
+	private CompletableFuture<Void> pendingFuture;
 	private final String subFolder;
 	private final Config config;
 	private final EnumSet<AutomationType> setting;
@@ -64,6 +89,11 @@ public final class ConfigHandler {
 	
 	ConfigHandler(Config config, ConfigSettings settings) {
 		this(settings.getSubFolder(), settings.getProxy(), settings.getLogger(), config, settings.getAutomationType(), settings.getMultilinePolicy(), settings.getType());
+		this.mappedThreshold = settings.getMappedThreshold();
+		this.atomicSaving = settings.isAtomicSaving();
+		this.saveDelay = settings.getAsyncSaveDelay();
+		this.lazyLoading = settings.isLazyLoading();
+		this.binarySnapshot = settings.isBinarySnapshot();
 	}
 	
 	ConfigHandler(String subFolder, IConfigProxy proxy, ILogger logger, Config config, EnumSet<AutomationType> setting, MultilinePolicy policy, ConfigType type) {
@@ -162,7 +192,7 @@ public final class ConfigHandler {
 		if(owner != null) {
 			owner.registerConfigHandler(this);
 			registered = true;
-			if(!proxy.isDynamicProxy() && setting.contains(AutomationType.AUTO_LOAD)) {
+			if(!proxy.isDynamicProxy() && setting.contains(AutomationType.AUTO_LOAD) && !owner.queueLoad(this)) {
 				load();
 			}
 		}
@@ -176,12 +206,16 @@ public final class ConfigHandler {
 			if(Files.notExists(file)) {
 				Helpers.ensureFolder(file.getParent());
 				save(file);
-				wasSaving--;
 			}
 		}
 	}
 	
 	public void load() {
+		prepareLoad();
+		finishLoad(parseFile());
+	}
+	
+	void prepareLoad() {
 		findConfigFile();
 		if(owner != null) {
 			if(setting.contains(AutomationType.AUTO_SYNC)) {
@@ -191,7 +225,10 @@ public final class ConfigHandler {
 				owner.registerReloadHandler(configFile, this);
 			}
 		}
-		if(loadInternally()) {
+	}
+	
+	void finishLoad(ConfigLoader loader) {
+		if(applyLoad(loader)) {
 			save();
 		}
 		isLoaded = true;
@@ -199,15 +236,31 @@ public final class ConfigHandler {
 	
 	public boolean reload() {
 		if(!isLoaded) return false;
-		if(wasSaving > 0) {
-			wasSaving--;
-			return false;
-		}
+		if(isUnchanged()) return false;
 		loadInternally();
 		return true;
 	}
 	
+	/**
+	 * Checks if the Config File still contains what was last loaded or saved.
+	 * The content is always hashed, an edit can keep both the size and the modification time.
+	 */
+	private boolean isUnchanged() {
+		FileFingerprint last = fingerprint;
+		if(last == null) return false;
+		try {
+			FileFingerprint current = FileFingerprint.read(configFile);
+			if(!last.hasSameContent(current)) return false;
+			fingerprint = current;
+			return true;
+		}
+		catch(IOException e) {
+			return false;
+		}
+	}
+	
 	public void unload() {
+		flushSaves();
 		isLoaded = false;
 		if(owner != null && setting.contains(AutomationType.AUTO_RELOAD)) {
 			owner.unregisterReloadHandler(configFile);
@@ -232,150 +285,388 @@ public final class ConfigHandler {
 		}
 	}
 	
-	private int handleEntry(ConfigSection currentSection, List<String> lines, int index, String line, String[] comment, boolean logErrors) {
-		if (currentSection == null) {
-			logger.error("config entry not in section: {}", line);
-			return 0;
-		}
-		String[] entryData = Helpers.trimArray(line.split("[:=]", 3));
-		if (entryData.length != 3) {
-			logger.error("invalid config entry: {}", line);
-			return 0;
-		}
-		int extra = 0;
-		if(entryData[2].startsWith("<<<")) {
-			if(entryData[2].endsWith(">>>")) {
-				entryData[2] = entryData[2].substring(3, entryData[2].length()-3);
-			} else {
-				StringBuilder builder = new StringBuilder();
-				extra += findString(entryData[2], lines, index, ">>>", builder);
-				entryData[2] = builder.toString();
-			}
-		}
-		else if(entryData[2].startsWith("<")) { //Legacy Support
-			if(entryData[2].endsWith(">")) {
-				entryData[2] = entryData[2].substring(1, entryData[2].length()-1);
-			} else {
-				StringBuilder builder = new StringBuilder();
-				extra += findString(entryData[2], lines, index, ">", builder);
-				entryData[2] = builder.toString();
-			}
-		}
+	private void handleEntry(ConfigLoader loader, ConfigTokenizer source, char prefix, String key, CharSequence value, List<CharSequence> comment) {
 		try {
-			ConfigEntry<?> entry = currentSection.getEntry(entryData[1]);
+			ConfigEntry<?> entry = loader.currentSection == null ? null : loader.currentSection.getEntry(key);
 			if(entry == null) {
-				IConfigParser parser = parsers.get(line.charAt(0));
+				IConfigParser parser = parsers.get(prefix);
 				if(parser == null) {
-					logger.warn("config entry is not registered and no parser found: {}", line);
-					return extra;
+					logger.warn("config entry is not registered and no parser found: {}", source.getLine());
+					return;
 				}
-				ParseResult<? extends ConfigEntry<?>> result = parser.parse(entryData[1], entryData[2], comment);
-				entry = result.getValue();
-				currentSection.addParsed(entry);
-				if(result.hasError() && logErrors) {
+				ParseResult<? extends ConfigEntry<?>> result = parser.parse(key, value.toString(), toArray(comment));
+				ConfigEntry<?> parsed = result.getValue();
+				loader.staged.add(() -> loader.target.addParsed(parsed));
+				if(result.hasError() && loader.logErrors) {
 					logger.warn("couldn't parse value: {}", result.getValue());
-					errors.add(new ConfigError(entry, result.getError()));
+					errors.add(new ConfigError(parsed, result.getError()));
 				}
-				return extra;
+				return;
 			}
-			entry.parseComment(comment);
-			if (line.charAt(0) == entry.getPrefix()) {
-				ParseResult<String> result = entry.deserializeValue(entryData[2]);
-				if(result.hasError() && logErrors) {
-					logger.warn("couldn't parse value: {}", result.getValue());
-					logger.warn("Parsing Error: {}", result.getError().getMessage());
-					errors.add(new ConfigError(entry, result.getError()));
-				}
+			if(entry.getComment() == null) {
+				String[] comments = toArray(comment);
+				loader.staged.add(() -> entry.parseComment(comments));
 			}
-			else logger.warn("config entry has wrong type: {}", line);
+			if (prefix == entry.getPrefix()) loader.stageValue(entry, value.toString(), loader.staged);
+			else logger.warn("config entry has wrong type: {}", source.getLine());
 		}
 		catch(Throwable e) {
 			logger.error("Crash during parsing. THIS SHOULD NEVER HAPPEN! {}", e);
 		}
-		return extra;
 	}
 	
-	private int findString(String base, List<String> lines, int index, String ending, StringBuilder builder) {
-		builder.append(base.substring(ending.length()));
-		int stepsDone = 0;
-		while(index+1 < lines.size()) {
-			index++;
-			stepsDone++;
-			String data = lines.get(index).trim();
-			if(data.endsWith(ending)) {
-				builder.append(data, 0, data.length()-ending.length());
-				break;
-			}
-			else if(data.length() > 1 && data.charAt(1) == ':' && parsers.containsKey(data.charAt(0))) {
-				stepsDone--;
-				break;
-			}
-			if(data.isEmpty()) continue;
-			builder.append(data);
+	private static String[] toArray(List<CharSequence> comments) {
+		String[] result = new String[comments.size()];
+		for(int i = 0,m=result.length;i<m;i++) {
+			result[i] = comments.get(i).toString();
 		}
-		return stepsDone;
+		return result;
 	}
 	
 	private boolean loadInternally() {
-		if(Files.notExists(configFile)) return true;
+		return applyLoad(parseFile());
+	}
+	
+	/**
+	 * Reads the Config File and parses its values without applying any of them.
+	 * The Config is only read, new Sections and Entries are staged as well, so different Configs can be parsed in parallel.
+	 * @return the staged values, or null if the File couldn't be read
+	 */
+	ConfigLoader parseFile() {
+		ConfigLoader loader = new ConfigLoader(config, true);
+		loader.lazy = lazyLoading;
+		if(Files.notExists(configFile)) return loader;
 		try {
 			errors.clear();
-			load(this, config, Files.readAllLines(configFile), true);
-			for (Runnable r : loadedListeners) {
-				r.run();
-			}
-			if(errors.size() > 0 && owner != null) {
-				owner.onConfigErrored(this);
+			if(binarySnapshot && BinarySnapshot.read(configFile, config, loader)) return loader;
+			long time = Files.getLastModifiedTime(configFile).toMillis();
+			if(mappedThreshold >= 0L && Files.size(configFile) >= mappedThreshold) parseMapped(loader, time);
+			else {
+				HashingInputStream input = new HashingInputStream(Files.newInputStream(configFile));
+				try(Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8.newDecoder())) {
+					ConfigTokenizer.of(reader).tokenize(loader);
+				}
+				loader.fingerprint = input.toFingerprint(time);
 			}
-			return true;
+			return loader;
 		} catch (IOException ex) {
 			ex.printStackTrace();
-			return false;
+			return null;
 		}
 	}
 	
+	private void parseMapped(ConfigLoader loader, long time) throws IOException {
+		try(FileChannel channel = FileChannel.open(configFile, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if(size > Integer.MAX_VALUE) throw new IOException("Config File is too large to be mapped: "+configFile);
+			MappedByteBuffer data = channel.map(MapMode.READ_ONLY, 0L, size);
+			FileFingerprint result = new FileFingerprint(size, time, FileFingerprint.hash(FileFingerprint.EMPTY_HASH, data));
+			ConfigTokenizer.of(data).tokenize(loader);
+			loader.fingerprint = result;
+		}
+	}
+	
+	private boolean applyLoad(ConfigLoader loader) {
+		if(loader == null) return false;
+		if(loader.fingerprint == null) {
+			config.publishSnapshot();
+			return true;
+		}
+		loader.apply();
+		fingerprint = loader.fingerprint;
+		for (Runnable r : loadedListeners) {
+			r.run();
+		}
+		if(errors.size() > 0 && owner != null) {
+			owner.onConfigErrored(this);
+		}
+		return true;
+	}
+	
 	public static boolean load(ConfigHandler handler, Config output, List<String> linesToParse, boolean logErrors) {
-		ConfigSection currentSection = null;
-		List<String> comments = new ObjectArrayList<>();
-		for (int i = 0,m=linesToParse.size();i<m;i++) {
-			String line = linesToParse.get(i).trim();
-			if (line.length() == 0)
-				continue;
-			switch (line.charAt(0)) {
-				case '[':
-					currentSection = output.getSectionRecursive(line.substring(1, line.length() - 1).split("\\."));
-					currentSection.parseComment(comments.toArray(new String[comments.size()]));
-					comments.clear();
-					break;
-				case '#':
-					if(line.charAt(1) == '\u200b') break;
-					comments.add(line.substring(1).trim());
-					break;
-				default:
-					i += handler.handleEntry(currentSection, linesToParse, i, line, comments.toArray(new String[comments.size()]), logErrors);
-					comments.clear();
-					break;
-			}
+		try {
+			return load(handler, output, ConfigTokenizer.of(linesToParse), logErrors);
+		}
+		catch(IOException e) {
+			e.printStackTrace();
+			return false;
 		}
+	}
+	
+	public static boolean load(ConfigHandler handler, Config output, ConfigTokenizer tokenizer, boolean logErrors) throws IOException {
+		ConfigLoader loader = handler.new ConfigLoader(output, logErrors);
+		tokenizer.tokenize(loader);
+		loader.apply();
 		return true;
 	}
 	
 	public void save() {
-		save(configFile);
+		saveAsync();
+	}
+	
+	/**
+	 * Same as {@link #save()} but provides a Future that completes once the Config was written to disk.
+	 * Unless async saving is enabled the write happens right away and the Future is already completed.
+	 */
+	public CompletableFuture<Void> saveAsync() {
+		CompletableFuture<Void> result = queueSave(configFile);
 		if(owner != null) owner.onConfigChanged(this);
 		onSynced();
+		return result;
 	}
 	
 	public void saveQuietly() {
-		save(configFile);
+		queueSave(configFile);
+	}
+	
+	/**
+	 * Writes any pending async save right away and waits for it to be finished.
+	 */
+	public void flushSaves() {
+		writePending();
+	}
+	
+	private CompletableFuture<Void> queueSave(Path file) {
+		if(saveDelay < 0L) return save(file);
+		String text = config.serialize(policy);
+		byte[] snapshot = captureSnapshot(file);
+		synchronized(saveLock) {
+			pendingFile = file;
+			pendingSave = text;
+			pendingSnapshot = snapshot;
+			if(pendingFuture == null) {
+				pendingFuture = new CompletableFuture<>();
+				ConfigWriter.schedule(this, saveDelay);
+			}
+			return pendingFuture;
+		}
 	}
 	
-	private void save(Path file) {
-		wasSaving++;
-		try (BufferedWriter writer = Files.newBufferedWriter(file)) {
-			writer.write(config.serialize(policy));
-		} catch (IOException e) {
-			e.printStackTrace();
+	void writePending() {
+		synchronized(writeLock) {
+			Path file;
+			String text;
+			byte[] snapshot;
+			CompletableFuture<Void> future;
+			synchronized(saveLock) {
+				file = pendingFile;
+				text = pendingSave;
+				snapshot = pendingSnapshot;
+				future = pendingFuture;
+				pendingFile = null;
+				pendingSave = null;
+				pendingSnapshot = null;
+				pendingFuture = null;
+			}
+			if(future == null) return;
+			try {
+				write(file, text, snapshot);
+				future.complete(null);
+			}
+			catch(IOException e) {
+				e.printStackTrace();
+				future.completeExceptionally(e);
+			}
+		}
+	}
+	
+	private CompletableFuture<Void> save(Path file) {
+		CompletableFuture<Void> result = new CompletableFuture<>();
+		synchronized(writeLock) {
+			try {
+				write(file, null, captureSnapshot(file));
+				result.complete(null);
+			}
+			catch(IOException e) {
+				e.printStackTrace();
+				result.completeExceptionally(e);
+			}
+		}
+		return result;
+	}
+	
+	private byte[] captureSnapshot(Path file) {
+		return binarySnapshot && file.equals(configFile) ? BinarySnapshot.capture(config) : null;
+	}
+	
+	/**
+	 * Streams the text into the file, or the current Config if the text is null.
+	 * The binary Snapshot is only written for the Config File.
+	 */
+	private void write(Path file, String text, byte[] snapshot) throws IOException {
+		boolean tracked = file.equals(configFile);
+		IChannelTask<FileFingerprint> task = T -> {
+			ChannelAppender output = new ChannelAppender(T);
+			if(text != null) output.append(text);
+			else config.serialize(output, policy);
+			output.finish();
+			FileFingerprint result = output.toFingerprint();
+			if(tracked) fingerprint = result;
+			return result;
+		};
+		FileFingerprint result = atomicSaving ? Helpers.writeAtomically(file, task) : Helpers.writeFully(file, task);
+		if(!tracked) return;
+		fingerprint = result.withLastModified(file);
+		if(snapshot == null) return;
+		try {
+			BinarySnapshot.write(file, fingerprint, snapshot, atomicSaving);
+		}
+		catch(IOException e) {
+			//The old Snapshot doesn't match the new File anymore, so the next load just parses the File
+			logger.warn("couldn't write binary snapshot: {}", e.getMessage());
+		}
+	}
+	
+	class ConfigLoader implements ITokenListener {
+		Config output;
+		boolean logErrors;
+		FileFingerprint fingerprint;
+		//Found without creating anything, null if the Section doesn't exist yet
+		ConfigSection currentSection = null;
+		boolean inSection = false;
+		//The Section the staged changes go to while they are applied
+		ConfigSection target = null;
+		List<CharSequence> comments = new ObjectArrayList<>();
+		List<Runnable> staged = new ObjectArrayList<>();
+		boolean lazy;
+		Object2ObjectMap<String, DeferredSection> deferred;
+		DeferredSection currentDeferred;
+		
+		public ConfigLoader(Config output, boolean logErrors) {
+			this.output = output;
+			this.logErrors = logErrors;
+		}
+		
+		/**
+		 * Applies all staged values at once, readers of the Config Snapshot only see the result after everything was applied.
+		 */
+		void apply() {
+			if(deferred != null) {
+				deferred.forEach(output::defer);
+				deferred = null;
+			}
+			output.beginUpdate();
+			try {
+				for(int i = 0,m=staged.size();i<m;i++) {
+					try {
+						staged.get(i).run();
+					}
+					catch(Throwable e) {
+						logger.error("Crash during parsing. THIS SHOULD NEVER HAPPEN! {}", e);
+					}
+				}
+			}
+			finally {
+				output.endUpdate();
+				staged.clear();
+				target = null;
+			}
+		}
+		
+		/**
+		 * Parses the value right away and only stages applying it, so the parsing happens on the Thread that reads the File.
+		 */
+		<T> void stageValue(ConfigEntry<T> entry, String value, List<Runnable> staged) {
+			ParseResult<T> result = entry.parseValue(value);
+			if(result.hasError()) {
+				if(logErrors) {
+					logger.warn("couldn't parse value: {}", value);
+					logger.warn("Parsing Error: {}", result.getError().getMessage());
+					errors.add(new ConfigError(entry, result.getError()));
+				}
+				return;
+			}
+			T parsed = result.getValue();
+			if(!entry.canSet(parsed).getValue()) return;
+			staged.add(() -> entry.applyValue(parsed));
+		}
+		
+		@Override
+		public void onSection(String path) {
+			String[] names = path.split("\\.");
+			if(lazy && !output.hasSection(names[0])) {
+				if(deferred == null) deferred = new Object2ObjectLinkedOpenHashMap<>();
+				currentSection = null;
+				inSection = false;
+				currentDeferred = deferred.computeIfAbsent(names[0], T -> new DeferredSection(ConfigHandler.this));
+				currentDeferred.addComments(comments);
+				currentDeferred.lines.add("[".concat(path).concat("]"));
+				comments.clear();
+				return;
+			}
+			currentDeferred = null;
+			currentSection = output.findSection(names);
+			inSection = true;
+			String[] comment = toArray(comments);
+			comments.clear();
+			staged.add(() -> {
+				target = output.getSectionRecursive(names);
+				if(target.getComment() == null) target.parseComment(comment);
+			});
+		}
+		
+		@Override
+		public void onComment(CharSequence comment) {
+			comments.add(comment);
+		}
+		
+		@Override
+		public void onEntry(ConfigTokenizer source, char prefix, String key, CharSequence value) {
+			if(currentDeferred != null) {
+				if(parsers.containsKey(prefix)) currentDeferred.addEntry(prefix, key, value, comments);
+				else logger.warn("config entry is not registered and no parser found: {}", source.getLine());
+				comments.clear();
+				return;
+			}
+			if (!inSection) {
+				comments.clear();
+				logger.error("config entry not in section: {}", source.getLine());
+				return;
+			}
+			handleEntry(this, source, prefix, key, value, comments);
+			comments.clear();
+		}
+		
+		@Override
+		public void onInvalidEntry(ConfigTokenizer source) {
+			comments.clear();
+			if (!inSection && currentDeferred == null) logger.error("config entry not in section: {}", source.getLine());
+			else logger.error("invalid config entry: {}", source.getLine());
+		}
+		
+		@Override
+		public boolean isEntryPrefix(char prefix) {
+			return parsers.containsKey(prefix);
+		}
+	}
+	
+	/**
+	 * Section that wasn't registered while loading, its Entries are kept as text and only parsed when the Section is accessed.
+	 * Values are always written as "<<<value>>>" so they are read back exactly like they were tokenized.
+	 */
+	static final class DeferredSection {
+		final ConfigHandler handler;
+		final List<String> lines = new ObjectArrayList<>();
+		boolean hasEntries;
+		
+		DeferredSection(ConfigHandler handler) {
+			this.handler = handler;
+		}
+		
+		void addComments(List<CharSequence> comments) {
+			for(int i = 0,m=comments.size();i<m;i++) {
+				lines.add("# ".concat(comments.get(i).toString()));
+			}
+		}
+		
+		void addEntry(char prefix, String key, CharSequence value, List<CharSequence> comments) {
+			addComments(comments);
+			lines.add(new StringBuilder(key.length() + value.length() + 9).append(prefix).append(':').append(key).append("=<<<").append(value).append(">>>").toString());
+			hasEntries = true;
+		}
+		
+		void load(Config output) {
+			ConfigHandler.load(handler, output, lines, true);
 		}
 	}
 	
@@ -0,0 +1,121 @@
+package carbonconfiglib.config;
+
+import java.util.List;
+import java.util.Map;
+
+import carbonconfiglib.api.buffer.IReadBuffer;
+import carbonconfiglib.api.buffer.IWriteBuffer;
+import carbonconfiglib.utils.SyncType;
+import speiger.src.collections.objects.lists.ObjectArrayList;
+import speiger.src.collections.objects.maps.impl.hash.Object2ObjectLinkedOpenHashMap;
+import speiger.src.collections.objects.maps.impl.hash.Object2ObjectOpenHashMap;
+
+/**
+ * Copyright 2026 Speiger, Meduris
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * Compiled table of all registered Entries of a Config in registration order.
+ * Every Entry gets a numeric id that is the same on every side that registers the same Entries, and the full paths are only built once.
+ * The hash covers the paths and types of all Entries, so peers can compare it to know if their ids match.
+ * Entries that only exist in the Config File are not part of the Schema.
+ */
+public final class ConfigSchema {
+	final ConfigEntry<?>[] entries;
+	final String[] paths;
+	final Map<String, Integer> ids = new Object2ObjectOpenHashMap<>();
+	final long hash;
+	
+	private ConfigSchema(List<ConfigEntry<?>> entries, List<String> paths) {
+		this.entries = entries.toArray(new ConfigEntry<?>[entries.size()]);
+		this.paths = paths.toArray(new String[paths.size()]);
+		long hash = 0xcbf29ce484222325L;
+		for(int i = 0,m=this.entries.length;i<m;i++) {
+			this.entries[i].schemaId = i;
+			ids.put(this.paths[i], i);
+			hash = hash(hash, this.paths[i]);
+			hash = (hash ^ this.entries[i].getPrefix()) * 0x100000001b3L;
+		}
+		this.hash = hash;
+	}
+	
+	static ConfigSchema build(Iterable<ConfigSection> sections) {
+		List<ConfigEntry<?>> entries = new ObjectArrayList<>();
+		List<String> paths = new ObjectArrayList<>();
+		for(ConfigSection section : sections) {
+			section.collectSchema(entries, paths);
+		}
+		return new ConfigSchema(entries, paths);
+	}
+	
+	private static long hash(long hash, String value) {
+		for(int i = 0,m=value.length();i<m;i++) {
+			hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+		}
+		return (hash ^ 0xFF) * 0x100000001b3L;
+	}
+	
+	public long getHash() {
+		return hash;
+	}
+	
+	public int size() {
+		return entries.length;
+	}
+	
+	/**
+	 * @return the id of the Entry or -1 if the Entry isn't part of this Schema
+	 */
+	public int getId(ConfigEntry<?> entry) {
+		int id = entry.schemaId;
+		return id >= 0 && id < entries.length && entries[id] == entry ? id : -1;
+	}
+	
+	public int getId(String path) {
+		Integer id = ids.get(path);
+		return id == null ? -1 : id.intValue();
+	}
+	
+	public ConfigEntry<?> getEntry(int id) {
+		return id >= 0 && id < entries.length ? entries[id] : null;
+	}
+	
+	public ConfigEntry<?> getEntry(String path) {
+		return getEntry(getId(path));
+	}
+	
+	public String getPath(int id) {
+		return paths[id];
+	}
+	
+	public Map<String, ConfigEntry<?>> getSyncedEntries(SyncType type) {
+		Map<String, ConfigEntry<?>> result = new Object2ObjectLinkedOpenHashMap<>();
+		for(int i = 0,m=entries.length;i<m;i++) {
+			if(entries[i].getSyncType() == type) result.put(paths[i], entries[i]);
+		}
+		return result;
+	}
+	
+	public void writeId(IWriteBuffer buffer, ConfigEntry<?> entry) {
+		int id = getId(entry);
+		if(id == -1) throw new IllegalArgumentException("Entry ["+entry.getKey()+"] isn't part of the Schema");
+		buffer.writeVarInt(id);
+	}
+	
+	/**
+	 * @return the Entry of the id that was read, or null if the id is unknown
+	 */
+	public ConfigEntry<?> readEntry(IReadBuffer buffer) {
+		return getEntry(buffer.readVarInt());
+	}
+}
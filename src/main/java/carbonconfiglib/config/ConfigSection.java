@@ -1,9 +1,9 @@
 package carbonconfiglib.config;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
 import java.util.List;
-import java.util.Map;
-import java.util.StringJoiner;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import carbonconfiglib.api.IConfigSerializer;
 import carbonconfiglib.api.IEntrySettings;
@@ -23,11 +23,9 @@ import carbonconfiglib.config.ConfigEntry.StringValue;
 import carbonconfiglib.config.ConfigEntry.TempValue;
 import carbonconfiglib.utils.Helpers;
 import carbonconfiglib.utils.MultilinePolicy;
-import carbonconfiglib.utils.SyncType;
 import speiger.src.collections.objects.lists.ObjectArrayList;
 import speiger.src.collections.objects.maps.impl.hash.Object2ObjectLinkedOpenHashMap;
 import speiger.src.collections.objects.maps.interfaces.Object2ObjectMap;
-import speiger.src.collections.objects.utils.maps.Object2ObjectMaps;
 
 /**
  * Copyright 2023 Speiger, Meduris
@@ -48,10 +46,19 @@ public class ConfigSection {
 	private String name;
 	private String[] comment;
 	private ConfigSection parent = null;
+	private Config config = null;
+	private String path;
 	private IEntrySettings settings = null;
 	private boolean used = false;
 	private Object2ObjectMap<String, ConfigEntry<?>> entries = new Object2ObjectLinkedOpenHashMap<>();
 	private Object2ObjectMap<String, ConfigSection> subSections = new Object2ObjectLinkedOpenHashMap<>();
+	private volatile RenderedSection rendered;
+	private volatile int version;
+	private boolean maybeChanged = true;
+	private boolean maybeModified = true;
+	private final Object copyLock = new Object();
+	private volatile ConfigSection template;
+	private volatile List<WeakReference<ConfigSection>> copies;
 	
 	public ConfigSection(String name) {
 		if (Helpers.validateString(name))
@@ -63,6 +70,7 @@ public class ConfigSection {
 	
 	public ConfigSection setComment(String...comment) {
 		this.comment = Helpers.validateComments(comment);
+		markDirty();
 		return this;
 	}
 	
@@ -85,13 +93,14 @@ public class ConfigSection {
 	}
 	
 	public void applyEntrySettings(IEntrySettings settings, Class<?> type, boolean children) {
+		detachCopies();
 		if(children) {
-			for(ConfigSection section : subSections.values()) {
+			for(ConfigSection section : subSections().values()) {
 				section.applyEntrySettings(settings, type, true);
 			}
 		}
 		if(type.isInstance(this)) setSettings(settings);
-		for(ConfigEntry<?> entry : entries.values()) {
+		for(ConfigEntry<?> entry : entries().values()) {
 			if(type.isInstance(entry)) entry.setSettings(settings);
 		}
 	}
@@ -99,22 +108,37 @@ public class ConfigSection {
 	void parseComment(String...comment) {
 		if(this.comment != null) return;
 		this.comment = Helpers.validateComments(comment);
+		markDirty();
 	}
 	
 	@SuppressWarnings("unchecked")
 	public <V, T extends ConfigEntry<V>> T add(T entry) {
-		ConfigEntry<?> presentKey = entries.get(entry.getKey());
+		detachCopies();
+		ConfigEntry<?> presentKey = entries().get(entry.getKey());
 		if(presentKey != null) {
 			if(presentKey instanceof TempValue) entry.deserializeValue(presentKey.serialize());
-			else return (T)(presentKey.getPrefix() != entry.getPrefix() ? entry : presentKey).setUsed();
+			else if(presentKey.getPrefix() != entry.getPrefix()) return entry;
+			else {
+				presentKey.setUsed();
+				onStructureChanged();
+				return (T)presentKey;
+			}
 		}
-		entries.put(entry.getKey(), entry.setUsed());
+		entry.setOwner(this);
+		entries().put(entry.getKey(), entry.setUsed());
+		markDirty();
+		onStructureChanged();
 		return entry;
 	}
 	
 	<V, T extends ConfigEntry<V>> T addParsed(T entry) {
-		ConfigEntry<?> existingValue = entries.putIfAbsent(entry.getKey(), entry);
+		detachCopies();
+		ConfigEntry<?> existingValue = entries().putIfAbsent(entry.getKey(), entry);
 		if(existingValue != null) existingValue.setLoaded();
+		else {
+			entry.setOwner(this);
+			markDirty();
+		}
 		return entry;
 	}
 	
@@ -215,11 +239,12 @@ public class ConfigSection {
 	}
 	
 	public ConfigSection addSubSection(String name) {
-		ConfigSection subSection = subSections.get(name);
+		ConfigSection subSection = subSections().get(name);
 		if(subSection == null) {
+			detachCopies();
 			subSection = new ConfigSection(name);
 			subSection.parent = this;
-			subSections.put(name, subSection);
+			subSections().put(name, subSection);
 		}
 		return subSection.setUsed();
 	}
@@ -227,71 +252,204 @@ public class ConfigSection {
 	public ConfigSection add(ConfigSection section) {
 		if (section.parent != null)
 			throw new IllegalStateException("ConfigSection must not be added to multiple sections. Section name: " + section.getName());
+		detachCopies();
 		section.parent = this;
-		subSections.putIfAbsent(section.name, section);
+		section.clearPath();
+		subSections().putIfAbsent(section.name, section);
+		flagChanges();
+		onStructureChanged();
 		return section.setUsed();
 	}
 	
 	public ConfigEntry<?> getEntry(String name) {
-		return entries.get(name);
+		return entries().get(name);
 	}
 	
 	public ConfigSection getSubSection(String name) {
-		return subSections.get(name);
+		return subSections().get(name);
 	}
 	
 	ConfigSection parseSubSection(String name) {
-		ConfigSection subSection = subSections.get(name);
+		ConfigSection subSection = subSections().get(name);
 		if(subSection == null) {
+			detachCopies();
 			subSection = new ConfigSection(name);
 			subSection.parent = this;
-			subSections.put(name, subSection);
+			subSections().put(name, subSection);
 		}
 		return subSection;
 	}
 	
 	public List<ConfigSection> getChildren() {
-		return new ObjectArrayList<>(subSections.values());
+		return new ObjectArrayList<>(subSections().values());
 	}
 	
 	public List<ConfigEntry<?>> getEntries() {
-		return new ObjectArrayList<>(entries.values());
+		return new ObjectArrayList<>(entries().values());
 	}
 	
+	/**
+	 * Copies start out empty and only copy the SubSections and Entries of this Section when they are accessed for the first time.
+	 * SubSections are copied the same way, so only the parts of a copy that are actually used get duplicated.
+	 * Changing the structure of this Section fills its pending copies and those of its Parents first, so they keep the structure they were copied with.
+	 * Changes to the settings of an Entry fill the pending copies as well.
+	 * Copies are filled under the lock of the copy, and always lock towards their template, so they can be accessed from any thread.
+	 */
 	protected ConfigSection copy() {
-		ConfigSection copy = new ConfigSection(name);
-		for(ConfigSection sub : subSections.values()) {
-			copy.add(sub.copy());
+		synchronized(copyLock) {
+			//A copy that wasn't accessed yet still matches its template
+			if(template != null) return template.copy();
+			ConfigSection copy = new ConfigSection(name);
+			copy.template = this;
+			if(copies == null) copies = new ObjectArrayList<>();
+			else copies.removeIf(T -> T.get() == null);
+			copies.add(new WeakReference<>(copy));
+			return copy;
 		}
-		for(ConfigEntry<?> entry : entries.values()) {
-			copy.add(entry.deepCopy());
+	}
+	
+	/**
+	 * Pending copies of the Parents would copy this Section too, so they are filled first.
+	 */
+	void detachCopies() {
+		if(parent != null) parent.detachCopies();
+		else if(config != null) config.detachCopies();
+		if(this.copies == null) return;
+		List<WeakReference<ConfigSection>> copies;
+		synchronized(copyLock) {
+			copies = this.copies;
+			this.copies = null;
+		}
+		if(copies == null) return;
+		for(WeakReference<ConfigSection> reference : copies) {
+			ConfigSection copy = reference.get();
+			if(copy != null) copy.ensureCopied();
+		}
+	}
+	
+	private void ensureCopied() {
+		if(template == null) return;
+		synchronized(copyLock) {
+			ConfigSection source = template;
+			if(source == null) return;
+			//Filled directly, going through add would fill pending copies of this Section while it is only half copied
+			for(ConfigSection sub : source.subSections().values()) {
+				ConfigSection copy = sub.copy();
+				copy.parent = this;
+				subSections.put(copy.name, copy.setUsed());
+			}
+			for(ConfigEntry<?> entry : source.entries().values()) {
+				ConfigEntry<?> copy = entry.deepCopy();
+				copy.setOwner(this);
+				entries.put(copy.getKey(), copy.setUsed());
+			}
+			//Only cleared once everything is filled, other threads wait for the lock until then
+			template = null;
 		}
-		return copy;
+		markDirty();
+		flagChanges();
+		onStructureChanged();
+	}
+	
+	private Object2ObjectMap<String, ConfigEntry<?>> entries() {
+		ensureCopied();
+		return entries;
+	}
+	
+	private Object2ObjectMap<String, ConfigSection> subSections() {
+		ensureCopied();
+		return subSections;
 	}
 	
 	public void resetDefault() {
-		subSections.values().forEach(ConfigSection::resetDefault);
-		entries.values().forEach(ConfigEntry::resetDefault);
+		Config owner = getConfig();
+		if(owner != null) owner.beginUpdate();
+		try {
+			subSections().values().forEach(ConfigSection::resetDefault);
+			entries().values().forEach(ConfigEntry::resetDefault);
+		}
+		finally {
+			if(owner != null) owner.endUpdate();
+		}
+	}
+	
+	void collectSchema(List<ConfigEntry<?>> output, List<String> paths) {
+		String prefix = getSectionPath() + ".";
+		for(ConfigEntry<?> entry : entries().values()) {
+			if(!entry.isUsed()) continue;
+			output.add(entry);
+			paths.add(prefix + entry.getKey());
+		}
+		for(ConfigSection section : subSections().values()) {
+			section.collectSchema(output, paths);
+		}
+	}
+	
+	void onStructureChanged() {
+		Config owner = getConfig();
+		if(owner != null) owner.invalidateSchema();
+	}
+	
+	/**
+	 * Collects the Entries that end up in the Config File, in the order they are written.
+	 */
+	void collectWritten(List<ConfigEntry<?>> output) {
+		for(ConfigEntry<?> entry : entries().values()) {
+			if(entry.isUsed() && entry.isNotHidden()) output.add(entry);
+		}
+		for(ConfigSection section : subSections().values()) {
+			if(section.isUsed()) section.collectWritten(output);
+		}
+	}
+	
+	void collectEntries(List<ConfigEntry<?>> output) {
+		output.addAll(entries().values());
+		for(ConfigSection section : subSections().values()) {
+			section.collectEntries(output);
+		}
+	}
+	
+	/**
+	 * Flags this Section and its Parents as possibly changed, so the next {@link #hasChanged()}/{@link #isDefault()} has to look at the Entries again.
+	 * Flags are only cleared by these checks once nothing was found, so untouched Sections are skipped without visiting their Entries.
+	 */
+	void flagChanges() {
+		maybeChanged = true;
+		maybeModified = true;
+		if(parent != null) parent.flagChanges();
+		else if(config != null) config.flagChanges();
 	}
 	
 	boolean hasChanged() {
-		for(ConfigEntry<?> entry : entries.values()) {
-			if(entry.hasChanged()) return true;
+		if(!maybeChanged) return false;
+		maybeChanged = false;
+		for(ConfigEntry<?> entry : entries().values()) {
+			if(entry.hasChanged()) {
+				maybeChanged = true;
+				return true;
+			}
 		}
-		for(ConfigSection section : subSections.values()) {
-			if(section.hasChanged()) return true;
+		for(ConfigSection section : subSections().values()) {
+			if(section.hasChanged()) {
+				maybeChanged = true;
+				return true;
+			}
 		}
 		return false;
 	}
 	
 	boolean isDefault() {
-		for(ConfigEntry<?> entry : entries.values()) {
+		if(!maybeModified) return true;
+		maybeModified = false;
+		for(ConfigEntry<?> entry : entries().values()) {
 			if(!entry.isDefault()) {
+				maybeModified = true;
 				return false;
 			}
 		}
-		for(ConfigSection section : subSections.values()) {
+		for(ConfigSection section : subSections().values()) {
 			if(!section.isDefault()) {
+				maybeModified = true;
 				return false;
 			}
 		}
@@ -302,6 +460,16 @@ public class ConfigSection {
 		return parent;
 	}
 	
+	Config getConfig() {
+		return parent != null ? parent.getConfig() : config;
+	}
+	
+	ConfigSection setConfig(Config config) {
+		this.config = config;
+		if(config != null) config.flagChanges();
+		return this;
+	}
+	
 	public String getName() {
 		return name;
 	}
@@ -329,7 +497,19 @@ public class ConfigSection {
 	}
 	
 	public String getSectionPath() {
-		return (parent != null ? parent.getSectionPath() + "." : "") + name;
+		String result = path;
+		if(result == null) {
+			result = (parent != null ? parent.getSectionPath() + "." : "") + name;
+			path = result;
+		}
+		return result;
+	}
+	
+	private void clearPath() {
+		path = null;
+		for(ConfigSection section : subSections().values()) {
+			section.clearPath();
+		}
 	}
 	
 	boolean isUsed() {
@@ -341,15 +521,8 @@ public class ConfigSection {
 		return this;
 	}
 	
-	void getSyncedEntries(Map<String, ConfigEntry<?>> syncedEntries, SyncType type) {
-		for (ConfigEntry<?> entry : entries.values()) {
-			if (entry.getSyncType() == type) {
-				syncedEntries.put(getSectionPath() + "." + entry.getKey(), entry);
-			}
-		}
-		for (ConfigSection section : subSections.values()) {
-			section.getSyncedEntries(syncedEntries, type);
-		}
+	void markDirty() {
+		version++;
 	}
 	
 	public String serialize(MultilinePolicy policy) {
@@ -357,15 +530,59 @@ public class ConfigSection {
 	}
 	
 	public String serialize(MultilinePolicy policy, int indentationLevel) {
-		if (entries.size() == 0 && subSections.size() == 0) return null;
-		AtomicInteger written = new AtomicInteger(0);
-		StringBuilder builder = new StringBuilder(parent == null ? "" : '\n' + Helpers.generateIndent(indentationLevel));
+		PreparedSection prepared = prepare(policy, indentationLevel);
+		if(prepared == null) return null;
+		StringBuilder builder = new StringBuilder();
+		try { prepared.write(builder); }
+		catch(IOException e) { throw new UncheckedIOException(e); }
+		return builder.toString();
+	}
+	
+	/**
+	 * Streams this Section and its Children into the output.
+	 * @return false if nothing was written
+	 */
+	public boolean serialize(Appendable output, MultilinePolicy policy, int indentationLevel) throws IOException {
+		PreparedSection prepared = prepare(policy, indentationLevel);
+		if(prepared == null) return false;
+		prepared.write(output);
+		return true;
+	}
+	
+	/**
+	 * Renders the outdated Section headers and Entries of this Section and its Children and finds out which of them have anything to write.
+	 * The Section header and its Entries are cached until something marks this Section dirty, so only changed Sections are rendered again.
+	 * The result holds everything that is written, so a concurrent {@link #markDirty()} can't change it halfway.
+	 * @return null if nothing would be written
+	 */
+	PreparedSection prepare(MultilinePolicy policy, int indentationLevel) {
+		if (entries().size() == 0 && subSections().size() == 0) return null;
+		RenderedSection current = rendered;
+		if (current == null || current.version != version || current.policy != policy || current.indent != indentationLevel) {
+			current = render(policy, indentationLevel);
+			rendered = current;
+		}
+		List<PreparedSection> children = null;
+		for(ConfigSection section : subSections().values()) {
+			if(!section.isUsed()) continue;
+			PreparedSection child = section.prepare(policy, indentationLevel + 1);
+			if(child == null) continue;
+			if(children == null) children = new ObjectArrayList<>();
+			children.add(child);
+		}
+		if(current.entries <= 0 && children == null) return null;
+		return new PreparedSection(current.text, entries().size() > 0 && subSections().size() > 0, children);
+	}
+	
+	private RenderedSection render(MultilinePolicy policy, int indentationLevel) {
+		//Changes during the rendering bump the version again, so they are picked up by the next save
+		int renderVersion = version;
+		StringBuilder builder = new StringBuilder(parent == null ? "" : Helpers.generateLineIndent(indentationLevel));
 		if (comment != null && comment.length > 0) {
-			String indentation = '\n' + Helpers.generateIndent(indentationLevel);
+			String indentation = Helpers.generateLineIndent(indentationLevel);
+			String separator = indentation + "# ";
 			for(int i = 0;i<comment.length;i++) {
-				builder.append(indentation);
-				builder.append("# ");
-				builder.append(comment[i].replaceAll("\\R", indentation + "# "));
+				Helpers.appendLines(builder.append(separator), comment[i], separator);
 			}
 			builder.append(indentation);
 			builder.delete(0, 1);
@@ -373,21 +590,53 @@ public class ConfigSection {
 		builder.append('[');
 		builder.append(getSectionPath());
 		builder.append(']');
-		final int finalIndentationLevel = indentationLevel + 1;
-		Object2ObjectMaps.fastForEach(entries, entry -> {
-			if(!entry.getValue().isUsed() || !entry.getValue().isNotHidden()) return;
-			builder.append(entry.getValue().serialize(policy, finalIndentationLevel));
-			written.incrementAndGet();
-		});
-		StringJoiner joiner = new StringJoiner("\n", entries.size() == 0 || subSections.size() == 0 ? "" : "\n", "");
-		Object2ObjectMaps.fastForEach(subSections, entry -> {
-			if(!entry.getValue().isUsed()) return;
-			String val = entry.getValue().serialize(policy, finalIndentationLevel);
-			if (val == null) return;
-			joiner.add(val);
-			written.getAndIncrement();
-		});
-		builder.append(joiner.toString());
-		return written.get() > 0 ? builder.toString() : null;
+		int written = 0;
+		for(ConfigEntry<?> entry : entries().values()) {
+			if(!entry.isUsed() || !entry.isNotHidden()) continue;
+			entry.serialize(builder, policy, indentationLevel + 1);
+			written++;
+		}
+		return new RenderedSection(builder.toString(), written, policy, indentationLevel, renderVersion);
+	}
+	
+	private static class RenderedSection {
+		final String text;
+		final int entries;
+		final MultilinePolicy policy;
+		final int indent;
+		final int version;
+		
+		RenderedSection(String text, int entries, MultilinePolicy policy, int indent, int version) {
+			this.text = text;
+			this.entries = entries;
+			this.policy = policy;
+			this.indent = indent;
+			this.version = version;
+		}
+	}
+	
+	/**
+	 * A Section and its Children as they were {@link ConfigSection#prepare(MultilinePolicy, int) prepared}.
+	 */
+	static class PreparedSection {
+		final String text;
+		final boolean separated;
+		final List<PreparedSection> children;
+		
+		PreparedSection(String text, boolean separated, List<PreparedSection> children) {
+			this.text = text;
+			this.separated = separated;
+			this.children = children;
+		}
+		
+		void write(Appendable output) throws IOException {
+			output.append(text);
+			if(separated) output.append('\n');
+			if(children == null) return;
+			for(int i = 0,m=children.size();i<m;i++) {
+				if(i > 0) output.append('\n');
+				children.get(i).write(output);
+			}
+		}
 	}
 }
@@ -33,6 +33,11 @@ public class ConfigSettings {
 	ILogger logger;
 	IConfigProxy proxy;
 	String subFolder;
+	long mappedThreshold = -1L;
+	Boolean atomicSaving;
+	Boolean lazyLoading;
+	Boolean binarySnapshot;
+	long saveDelay = -1L;
 	
 	private ConfigSettings() {}
 	
@@ -72,6 +77,10 @@ public class ConfigSettings {
 		return new ConfigSettings().withMultiline(policy);
 	}
 	
+	public static ConfigSettings withMapping(long minFileSize) {
+		return new ConfigSettings().withMappedLoading(minFileSize);
+	}
+	
 	public ConfigSettings withBaseFolder(Path baseFolder) {
 		return withProxy(new SimpleConfigProxy(baseFolder));
 	}
@@ -111,6 +120,55 @@ public class ConfigSettings {
 		return this;
 	}
 	
+	/**
+	 * Config Files that are at least this many bytes large are memory mapped when loaded instead of being read through a Reader.
+	 * Meant for very large generated Configs, small Files should stay on the default path.
+	 * Note: On Windows a mapped File can't be overwritten until the mapping was garbage collected, so saving over it can fail until that happened.
+	 * @param minFileSize the minimum File size in bytes, negative values disable mapping (default)
+	 */
+	public ConfigSettings withMappedLoading(long minFileSize) {
+		if(this.mappedThreshold < 0L) this.mappedThreshold = minFileSize;
+		return this;
+	}
+	
+	/**
+	 * Saves are written into a temp file first, forced to disk and then atomically moved over the Config File.
+	 * That way a crash while saving can't leave a truncated Config behind.
+	 */
+	public ConfigSettings withAtomicSaving(boolean atomic) {
+		if(this.atomicSaving == null) this.atomicSaving = atomic;
+		return this;
+	}
+	
+	/**
+	 * Sections that aren't registered when the Config is loaded are kept as text and only parsed once they are accessed.
+	 * Meant for Configs that carry a lot of leftover Sections, they are never saved anyway.
+	 * Note: Sections that are parsed later are added after the already existing Sections instead of at their place in the File.
+	 */
+	public ConfigSettings withLazyLoading(boolean lazy) {
+		if(this.lazyLoading == null) this.lazyLoading = lazy;
+		return this;
+	}
+	
+	/**
+	 * Every save also writes the values into a binary Snapshot next to the Config File.
+	 * Loading reads the Snapshot instead of parsing the File, as long as the File wasn't edited and the registered Entries are the same.
+	 */
+	public ConfigSettings withBinarySnapshot(boolean snapshot) {
+		if(this.binarySnapshot == null) this.binarySnapshot = snapshot;
+		return this;
+	}
+	
+	/**
+	 * Saves are rendered on the calling thread but written to disk by a background writer.
+	 * All saves within the delay are coalesced into a single write.
+	 * @param coalesceMillis how long the writer waits for further saves before writing, negative values disable async saving (default)
+	 */
+	public ConfigSettings withAsyncSaving(long coalesceMillis) {
+		if(this.saveDelay < 0L) this.saveDelay = coalesceMillis;
+		return this;
+	}
+	
 	public IConfigProxy getProxy() {
 		return proxy;
 	}
@@ -134,4 +192,24 @@ public class ConfigSettings {
 	public MultilinePolicy getMultilinePolicy() {
 		return policy;
 	}
+	
+	public long getMappedThreshold() {
+		return mappedThreshold;
+	}
+	
+	public boolean isAtomicSaving() {
+		return atomicSaving != null && atomicSaving;
+	}
+	
+	public boolean isLazyLoading() {
+		return lazyLoading != null && lazyLoading;
+	}
+	
+	public boolean isBinarySnapshot() {
+		return binarySnapshot != null && binarySnapshot;
+	}
+	
+	public long getAsyncSaveDelay() {
+		return saveDelay;
+	}
 }
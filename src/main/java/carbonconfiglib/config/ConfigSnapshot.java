@@ -0,0 +1,105 @@
+package carbonconfiglib.config;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import carbonconfiglib.config.ConfigEntry.BoolValue;
+import carbonconfiglib.config.ConfigEntry.DoubleValue;
+import carbonconfiglib.config.ConfigEntry.FloatValue;
+import carbonconfiglib.config.ConfigEntry.IntValue;
+import carbonconfiglib.config.ConfigEntry.LongValue;
+
+/**
+ * Copyright 2026 Speiger, Meduris
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * Immutable view of all Values of a Config at one point in time.
+ * A reload publishes a new Snapshot only after every value was applied, so all values read from one Snapshot come from the same File version.
+ * Entries that were added after the Snapshot was created fall back to their current value.
+ */
+public final class ConfigSnapshot {
+	static final ConfigSnapshot EMPTY = new ConfigSnapshot(0L, new ConfigEntry<?>[0], new Object[0], new IdentityHashMap<>());
+	final long generation;
+	final ConfigEntry<?>[] entries;
+	final Object[] values;
+	//Owned by the Snapshot, so older Snapshots keep finding their own values after the structure changed
+	final Map<ConfigEntry<?>, Integer> slots;
+	
+	private ConfigSnapshot(long generation, ConfigEntry<?>[] entries, Object[] values, Map<ConfigEntry<?>, Integer> slots) {
+		this.generation = generation;
+		this.entries = entries;
+		this.values = values;
+		this.slots = slots;
+	}
+	
+	static ConfigSnapshot build(long generation, List<ConfigEntry<?>> list) {
+		ConfigEntry<?>[] entries = list.toArray(new ConfigEntry<?>[list.size()]);
+		Object[] values = new Object[entries.length];
+		Map<ConfigEntry<?>, Integer> slots = new IdentityHashMap<>(entries.length);
+		for(int i = 0,m=entries.length;i<m;i++) {
+			slots.put(entries[i], i);
+			values[i] = entries[i].getValue();
+		}
+		return new ConfigSnapshot(generation, entries, values, slots);
+	}
+	
+	private int indexOf(ConfigEntry<?> entry) {
+		Integer slot = slots.get(entry);
+		return slot == null ? -1 : slot.intValue();
+	}
+	
+	public long getGeneration() {
+		return generation;
+	}
+	
+	public int size() {
+		return entries.length;
+	}
+	
+	public boolean contains(ConfigEntry<?> entry) {
+		return indexOf(entry) != -1;
+	}
+	
+	@SuppressWarnings("unchecked")
+	public <T> T get(ConfigEntry<T> entry) {
+		int slot = indexOf(entry);
+		return slot == -1 ? entry.getValue() : (T)values[slot];
+	}
+	
+	public boolean getBoolean(BoolValue entry) {
+		int slot = indexOf(entry);
+		return slot == -1 ? entry.get() : ((Boolean)values[slot]).booleanValue();
+	}
+	
+	public int getInt(IntValue entry) {
+		int slot = indexOf(entry);
+		return slot == -1 ? entry.get() : ((Integer)values[slot]).intValue();
+	}
+	
+	public long getLong(LongValue entry) {
+		int slot = indexOf(entry);
+		return slot == -1 ? entry.get() : ((Long)values[slot]).longValue();
+	}
+	
+	public float getFloat(FloatValue entry) {
+		int slot = indexOf(entry);
+		return slot == -1 ? entry.get() : ((Float)values[slot]).floatValue();
+	}
+	
+	public double getDouble(DoubleValue entry) {
+		int slot = indexOf(entry);
+		return slot == -1 ? entry.get() : ((Double)values[slot]).doubleValue();
+	}
+}
@@ -0,0 +1,366 @@
+package carbonconfiglib.config;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Copyright 2026 Speiger, Meduris
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * Single pass Tokenizer for the Config Format.
+ * It walks the input line by line (without keeping them) and reports Sections, Comments and Entries to a listener.
+ * Entries are split by index scanning and Multiline Values are resolved in the same pass.
+ * Values and Comments are reported as CharSequences, so sources that keep the whole text around can hand out slices instead of Strings.
+ */
+public abstract class ConfigTokenizer {
+	CharSequence line;
+	int start;
+	int end;
+	boolean pushedBack;
+	String entryLine;
+	
+	public static ConfigTokenizer of(Reader reader) {
+		return new ReaderTokenizer(reader);
+	}
+	
+	public static ConfigTokenizer of(List<String> lines) {
+		return new LineTokenizer(lines);
+	}
+	
+	public static ConfigTokenizer of(CharSequence text) {
+		return new SequenceTokenizer(text);
+	}
+	
+	/**
+	 * Tokenizes UTF-8 encoded bytes, for example a memory mapped file.
+	 * Pure ASCII input is read in place and only decoded where a String is actually requested, anything else is decoded once up front.
+	 */
+	public static ConfigTokenizer of(ByteBuffer data) throws IOException {
+		if(isAscii(data)) return new SequenceTokenizer(new AsciiSequence(data, data.position(), data.remaining()));
+		return new SequenceTokenizer(StandardCharsets.UTF_8.newDecoder().decode(data));
+	}
+	
+	private static boolean isAscii(ByteBuffer data) {
+		int index = data.position();
+		int limit = data.limit();
+		for(;index + 8 <= limit;index += 8) {
+			if((data.getLong(index) & 0x8080808080808080L) != 0) return false;
+		}
+		for(;index < limit;index++) {
+			if(data.get(index) < 0) return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Reads the next raw line. Sets line/start/end to the untrimmed line bounds.
+	 * @return false if the end of the input was reached.
+	 */
+	protected abstract boolean readLine() throws IOException;
+	
+	protected void appendRange(StringBuilder builder, int from, int to) {
+		builder.append(line, from, to);
+	}
+	
+	protected String substring(int from, int to) {
+		return line.subSequence(from, to).toString();
+	}
+	
+	protected CharSequence slice(int from, int to) {
+		return substring(from, to);
+	}
+	
+	/**
+	 * @return the line the current entry started on, used for error reporting.
+	 */
+	public String getLine() {
+		return entryLine != null ? entryLine : substring(start, end);
+	}
+	
+	private boolean nextLine() throws IOException {
+		if(pushedBack) {
+			pushedBack = false;
+			return true;
+		}
+		if(!readLine()) return false;
+		while(start < end && line.charAt(start) <= ' ') start++;
+		while(end > start && line.charAt(end - 1) <= ' ') end--;
+		return true;
+	}
+	
+	public void tokenize(ITokenListener listener) throws IOException {
+		while(nextLine()) {
+			if(start >= end) continue;
+			switch(line.charAt(start)) {
+				case '[':
+					listener.onSection(end - start > 1 ? substring(start + 1, end - 1) : "");
+					break;
+				case '#':
+					if(end - start > 1 && line.charAt(start + 1) == '\u200b') break;
+					int commentStart = start + 1;
+					while(commentStart < end && line.charAt(commentStart) <= ' ') commentStart++;
+					listener.onComment(slice(commentStart, end));
+					break;
+				default:
+					parseEntry(listener);
+					break;
+			}
+		}
+	}
+	
+	private void parseEntry(ITokenListener listener) throws IOException {
+		entryLine = null;
+		int first = indexOfSplitter(start, end);
+		int second = first == -1 ? -1 : indexOfSplitter(first + 1, end);
+		if(second == -1) {
+			listener.onInvalidEntry(this);
+			return;
+		}
+		char prefix = line.charAt(start);
+		int keyStart = first + 1;
+		int keyEnd = second;
+		while(keyStart < keyEnd && line.charAt(keyStart) <= ' ') keyStart++;
+		while(keyEnd > keyStart && line.charAt(keyEnd - 1) <= ' ') keyEnd--;
+		String key = substring(keyStart, keyEnd);
+		int valueStart = second + 1;
+		while(valueStart < end && line.charAt(valueStart) <= ' ') valueStart++;
+		CharSequence value;
+		if(startsWith(valueStart, "<<<")) value = readMultiline(listener, valueStart, ">>>");
+		else if(startsWith(valueStart, "<")) value = readMultiline(listener, valueStart, ">"); //Legacy Support
+		else value = slice(valueStart, end);
+		listener.onEntry(this, prefix, key, value);
+	}
+	
+	private CharSequence readMultiline(ITokenListener listener, int valueStart, String ending) throws IOException {
+		int length = ending.length();
+		if(end - valueStart >= length * 2 && endsWith(end, ending)) {
+			return slice(valueStart + length, end - length);
+		}
+		entryLine = substring(start, end);
+		StringBuilder builder = new StringBuilder();
+		appendRange(builder, valueStart + length, end);
+		while(nextLine()) {
+			if(endsWith(end, ending)) {
+				appendRange(builder, start, end - length);
+				break;
+			}
+			else if(end - start > 1 && line.charAt(start + 1) == ':' && listener.isEntryPrefix(line.charAt(start))) {
+				pushedBack = true;
+				break;
+			}
+			if(start >= end) continue;
+			appendRange(builder, start, end);
+		}
+		return builder;
+	}
+	
+	private int indexOfSplitter(int from, int to) {
+		for(int i = from;i<to;i++) {
+			char c = line.charAt(i);
+			if(c == ':' || c == '=') return i;
+		}
+		return -1;
+	}
+	
+	private boolean startsWith(int from, String prefix) {
+		if(end - from < prefix.length()) return false;
+		for(int i = 0,m=prefix.length();i<m;i++) {
+			if(line.charAt(from + i) != prefix.charAt(i)) return false;
+		}
+		return true;
+	}
+	
+	private boolean endsWith(int to, String suffix) {
+		int offset = to - suffix.length();
+		if(offset < start) return false;
+		for(int i = 0,m=suffix.length();i<m;i++) {
+			if(line.charAt(offset + i) != suffix.charAt(i)) return false;
+		}
+		return true;
+	}
+	
+	public static interface ITokenListener {
+		public void onSection(String path);
+		public void onComment(CharSequence comment);
+		public void onEntry(ConfigTokenizer source, char prefix, String key, CharSequence value);
+		public void onInvalidEntry(ConfigTokenizer source);
+		public boolean isEntryPrefix(char prefix);
+	}
+	
+	static class LineTokenizer extends ConfigTokenizer {
+		List<String> lines;
+		int index = 0;
+		
+		public LineTokenizer(List<String> lines) {
+			this.lines = lines;
+		}
+		
+		@Override
+		protected boolean readLine() {
+			if(index >= lines.size()) return false;
+			String value = lines.get(index++);
+			line = value;
+			start = 0;
+			end = value.length();
+			return true;
+		}
+	}
+	
+	static class SequenceTokenizer extends ConfigTokenizer {
+		int pos = 0;
+		
+		public SequenceTokenizer(CharSequence text) {
+			line = text;
+		}
+		
+		@Override
+		protected boolean readLine() {
+			int length = line.length();
+			if(pos >= length) return false;
+			int lineEnd = pos;
+			while(lineEnd < length) {
+				char c = line.charAt(lineEnd);
+				if(c == '\n' || c == '\r') break;
+				lineEnd++;
+			}
+			start = pos;
+			end = lineEnd;
+			pos = lineEnd + 1;
+			if(lineEnd + 1 < length && line.charAt(lineEnd) == '\r' && line.charAt(lineEnd + 1) == '\n') pos++;
+			return true;
+		}
+		
+		@Override
+		protected CharSequence slice(int from, int to) {
+			return line.subSequence(from, to);
+		}
+	}
+	
+	static class ReaderTokenizer extends ConfigTokenizer {
+		Reader reader;
+		char[] buffer = new char[8192];
+		int pos;
+		int limit;
+		boolean skipLF;
+		LineBuffer current = new LineBuffer();
+		
+		public ReaderTokenizer(Reader reader) {
+			this.reader = reader;
+			line = current;
+		}
+		
+		@Override
+		protected boolean readLine() throws IOException {
+			current.length = 0;
+			boolean started = false;
+			while(true) {
+				if(pos >= limit) {
+					limit = reader.read(buffer, 0, buffer.length);
+					pos = 0;
+					if(limit <= 0) {
+						limit = 0;
+						if(!started) return false;
+						break;
+					}
+				}
+				if(skipLF) {
+					skipLF = false;
+					if(buffer[pos] == '\n') {
+						pos++;
+						continue;
+					}
+				}
+				started = true;
+				int lineEnd = pos;
+				while(lineEnd < limit && buffer[lineEnd] != '\n' && buffer[lineEnd] != '\r') lineEnd++;
+				current.append(buffer, pos, lineEnd - pos);
+				if(lineEnd >= limit) {
+					pos = limit;
+					continue;
+				}
+				skipLF = buffer[lineEnd] == '\r';
+				pos = lineEnd + 1;
+				break;
+			}
+			start = 0;
+			end = current.length;
+			return true;
+		}
+		
+		@Override
+		protected void appendRange(StringBuilder builder, int from, int to) {
+			builder.append(current.data, from, to - from);
+		}
+		
+		@Override
+		protected String substring(int from, int to) {
+			return new String(current.data, from, to - from);
+		}
+	}
+	
+	static class LineBuffer implements CharSequence {
+		char[] data = new char[256];
+		int length;
+		
+		void append(char[] input, int offset, int amount) {
+			if(length + amount > data.length) {
+				char[] newData = new char[Math.max(data.length * 2, length + amount)];
+				System.arraycopy(data, 0, newData, 0, length);
+				data = newData;
+			}
+			System.arraycopy(input, offset, data, length, amount);
+			length += amount;
+		}
+		
+		@Override
+		public int length() { return length; }
+		@Override
+		public char charAt(int index) { return data[index]; }
+		@Override
+		public CharSequence subSequence(int start, int end) { return new String(data, start, end - start); }
+		@Override
+		public String toString() { return new String(data, 0, length); }
+	}
+	
+	static class AsciiSequence implements CharSequence {
+		ByteBuffer data;
+		int offset;
+		int length;
+		
+		public AsciiSequence(ByteBuffer data, int offset, int length) {
+			this.data = data;
+			this.offset = offset;
+			this.length = length;
+		}
+		
+		@Override
+		public int length() { return length; }
+		@Override
+		public char charAt(int index) { return (char)data.get(offset + index); }
+		@Override
+		public CharSequence subSequence(int start, int end) { return new AsciiSequence(data, offset + start, end - start); }
+		
+		@Override
+		public String toString() {
+			byte[] bytes = new byte[length];
+			ByteBuffer view = data.duplicate();
+			view.position(offset);
+			view.get(bytes);
+			return new String(bytes, StandardCharsets.ISO_8859_1);
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package carbonconfiglib.config;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copyright 2026 Speiger, Meduris
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * Shared background writer for Configs that save asynchronously.
+ * It runs on a single daemon thread, so writes that are still pending when the JVM shuts down are flushed by a shutdown hook.
+ */
+final class ConfigWriter {
+	private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(ConfigWriter::createThread);
+	private static final Set<ConfigHandler> PENDING = ConcurrentHashMap.newKeySet();
+	
+	static {
+		Runtime.getRuntime().addShutdownHook(new Thread(ConfigWriter::flushAll, "Carbon Config Shutdown Writer"));
+	}
+	
+	private ConfigWriter() {}
+	
+	static void schedule(ConfigHandler handler, long delay) {
+		PENDING.add(handler);
+		EXECUTOR.schedule(() -> {
+			PENDING.remove(handler);
+			handler.writePending();
+		}, delay, TimeUnit.MILLISECONDS);
+	}
+	
+	private static void flushAll() {
+		for(ConfigHandler handler : PENDING) {
+			handler.writePending();
+		}
+	}
+	
+	private static Thread createThread(Runnable runnable) {
+		Thread thread = new Thread(runnable, "Carbon Config Writer");
+		thread.setDaemon(true);
+		return thread;
+	}
+}
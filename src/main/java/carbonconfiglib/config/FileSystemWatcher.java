@@ -1,6 +1,7 @@
 package carbonconfiglib.config;
 
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.FileSystems;
 import java.nio.file.Path;
 import java.nio.file.StandardWatchEventKinds;
@@ -11,14 +12,23 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import carbonconfiglib.api.ConfigType;
 import carbonconfiglib.api.IConfigChangeListener;
 import carbonconfiglib.api.ILogger;
+import carbonconfiglib.config.ConfigHandler.ConfigLoader;
 import carbonconfiglib.utils.AutomationType;
 import carbonconfiglib.utils.MultilinePolicy;
 import speiger.src.collections.objects.lists.ObjectArrayList;
 import speiger.src.collections.objects.maps.impl.hash.Object2ObjectLinkedOpenHashMap;
+import speiger.src.collections.objects.sets.ObjectLinkedOpenHashSet;
 import speiger.src.collections.objects.sets.ObjectOpenHashSet;
 
 /**
@@ -42,11 +52,16 @@ public class FileSystemWatcher {
 	private Set<ConfigHandler> syncedConfigs = new ObjectOpenHashSet<>();
 	private Map<Path, ConfigHandler> configs = new Object2ObjectLinkedOpenHashMap<>();
 	private Map<WatchKey, Path> folders = new Object2ObjectLinkedOpenHashMap<>();
+	private List<ConfigHandler> pendingLoads = new ObjectArrayList<>();
+	private Set<ConfigHandler> reloading = new ObjectOpenHashSet<>();
+	private Set<ConfigHandler> reloadAgain = new ObjectOpenHashSet<>();
+	private boolean deferLoading = false;
 	
 	private ILogger logger;
 	private Path basePath;
 	private IConfigChangeListener changeListener;
 	private Object sync = new Object();
+	private volatile Thread watcherThread;
 	
 	public FileSystemWatcher(ILogger logger, Path basePath, IConfigChangeListener changedListener) {
 		init(logger, basePath, changedListener);
@@ -143,26 +158,257 @@ public class FileSystemWatcher {
 		return configsByName.get(name);
 	}
 	
+	/**
+	 * Configs that are registered after this call are not loaded right away but queued until {@link #loadAll(Executor)} is called.
+	 */
+	public void deferLoading() {
+		synchronized(sync) {
+			deferLoading = true;
+		}
+	}
+	
+	boolean queueLoad(ConfigHandler handler) {
+		synchronized(sync) {
+			if(!deferLoading) return false;
+			pendingLoads.add(handler);
+			return true;
+		}
+	}
+	
+	public void loadAll() {
+		loadAll(ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Loads all Configs that were queued since {@link #deferLoading()} and disables the deferred loading again.
+	 * The Files are read and parsed in parallel on the executor, the values are then applied and all Listeners are fired on the calling thread in registration order.
+	 * @param executor where the Files are parsed
+	 */
+	public void loadAll(Executor executor) {
+		List<ConfigHandler> handlers;
+		synchronized(sync) {
+			handlers = new ObjectArrayList<>(pendingLoads);
+			pendingLoads.clear();
+			deferLoading = false;
+		}
+		List<CompletableFuture<ConfigLoader>> parsed = new ObjectArrayList<>();
+		for(int i = 0,m=handlers.size();i<m;i++) {
+			ConfigHandler handler = handlers.get(i);
+			try {
+				handler.prepareLoad();
+				parsed.add(CompletableFuture.supplyAsync(handler::parseFile, executor));
+			}
+			catch(RuntimeException e) {
+				logLoadError(handler, e);
+				parsed.add(null);
+			}
+		}
+		//Failures are handled per Config, so one broken Config doesn't keep the others from loading
+		for(int i = 0,m=handlers.size();i<m;i++) {
+			ConfigHandler handler = handlers.get(i);
+			CompletableFuture<ConfigLoader> future = parsed.get(i);
+			if(future == null) continue;
+			ConfigLoader loader = null;
+			try {
+				loader = future.join();
+			}
+			catch(CompletionException | CancellationException e) {
+				logLoadError(handler, e.getCause() != null ? e.getCause() : e);
+			}
+			try {
+				handler.finishLoad(loader);
+			}
+			catch(RuntimeException e) {
+				logLoadError(handler, e);
+			}
+		}
+	}
+	
+	private void logLoadError(ConfigHandler handler, Throwable error) {
+		logger.error("could not load config {}", handler.getConfigIdentifer());
+		logger.error(error);
+	}
+	
+	/**
+	 * Starts a daemon thread that waits for file changes by itself, so {@link #processFileSystemEvents()} doesn't have to be polled.
+	 * Events are collected per file and a single reload is dispatched once the file was quiet for the debounce time.
+	 * @param debounceMillis how long a file has to be unchanged before it is reloaded
+	 * @param reloadExecutor where the reloads and Reload-Listeners are executed
+	 */
+	public void startWatching(long debounceMillis, Executor reloadExecutor) {
+		startWatching(debounceMillis, reloadExecutor, FileSystemWatcher::createWatcherThread);
+	}
+	
+	/**
+	 * Same as {@link #startWatching(long, Executor)} but the thread is created by the provided factory, for example to use a virtual thread.
+	 */
+	public void startWatching(long debounceMillis, Executor reloadExecutor, ThreadFactory factory) {
+		if(watchService == null) return;
+		synchronized(sync) {
+			if(watcherThread != null) return;
+			watcherThread = factory.newThread(() -> watchEvents(TimeUnit.MILLISECONDS.toNanos(Math.max(0L, debounceMillis)), reloadExecutor));
+			watcherThread.start();
+		}
+	}
+	
+	public void stopWatching() {
+		Thread thread;
+		synchronized(sync) {
+			thread = watcherThread;
+			watcherThread = null;
+		}
+		if(thread != null) thread.interrupt();
+	}
+	
+	public boolean isWatching() {
+		return watcherThread != null;
+	}
+	
+	private void watchEvents(long debounce, Executor executor) {
+		Map<Path, Long> pending = new Object2ObjectLinkedOpenHashMap<>();
+		try {
+			while(!Thread.currentThread().isInterrupted()) {
+				WatchKey key;
+				if(pending.isEmpty()) key = watchService.take();
+				else {
+					long wait = Long.MAX_VALUE;
+					long now = System.nanoTime();
+					for(Long deadline : pending.values()) {
+						wait = Math.min(wait, deadline - now);
+					}
+					key = wait > 0L ? watchService.poll(wait, TimeUnit.NANOSECONDS) : watchService.poll();
+				}
+				if(key != null) {
+					collectEvents(key, pending, System.nanoTime() + debounce);
+				}
+				long now = System.nanoTime();
+				for(Iterator<Map.Entry<Path, Long>> iter = pending.entrySet().iterator();iter.hasNext();) {
+					Map.Entry<Path, Long> entry = iter.next();
+					if(entry.getValue() - now > 0L) continue;
+					iter.remove();
+					ConfigHandler handler;
+					synchronized(sync) {
+						handler = configs.get(entry.getKey());
+					}
+					if(handler != null) dispatchReload(handler, executor);
+				}
+			}
+		}
+		catch(InterruptedException | ClosedWatchServiceException e) {
+			//Watcher was stopped
+		}
+	}
+	
+	private void collectEvents(WatchKey key, Map<Path, Long> pending, long deadline) {
+		synchronized(sync) {
+			Path folder = folders.get(key);
+			for (WatchEvent<?> event : key.pollEvents()) {
+				if(folder == null) continue;
+				if(event.kind() == StandardWatchEventKinds.OVERFLOW) {
+					//Events were lost, so every config in that folder could have changed
+					for(Path path : configs.keySet()) {
+						if(folder.equals(path.getParent())) pending.put(path, deadline);
+					}
+					continue;
+				}
+				Path path = folder.resolve(((Path) event.context()).getFileName());
+				if(configs.containsKey(path)) pending.put(path, deadline);
+			}
+		}
+		key.reset();
+	}
+	
+	/**
+	 * Only one reload per handler runs at a time, reloads that are requested while it runs are coalesced into one more reload afterwards.
+	 */
+	private void dispatchReload(ConfigHandler handler, Executor executor) {
+		synchronized(sync) {
+			if(!reloading.add(handler)) {
+				reloadAgain.add(handler);
+				return;
+			}
+		}
+		try {
+			executor.execute(() -> runReload(handler));
+		}
+		catch(RuntimeException e) {
+			finishReload(handler, true);
+			logger.error("could not dispatch the reload of {}", handler.getConfigIdentifer());
+			logger.error(e);
+		}
+	}
+	
+	private void runReload(ConfigHandler handler) {
+		boolean running = true;
+		try {
+			do {
+				reloadConfig(handler);
+			}
+			while(running = finishReload(handler, false));
+		}
+		finally {
+			if(running) finishReload(handler, true);
+		}
+	}
+	
+	/**
+	 * @return true if another reload was requested while the last one was running
+	 */
+	private boolean finishReload(ConfigHandler handler, boolean failed) {
+		synchronized(sync) {
+			if(reloadAgain.remove(handler) && !failed) return true;
+			reloading.remove(handler);
+			return false;
+		}
+	}
+	
+	private void reloadConfig(ConfigHandler handler) {
+		if (handler.reload()) {
+			onConfigChanged(handler);
+		}
+	}
+	
+	private static Thread createWatcherThread(Runnable runnable) {
+		Thread thread = new Thread(runnable, "Carbon Config Watcher");
+		thread.setDaemon(true);
+		return thread;
+	}
+	
 	public void processFileSystemEvents() {
-		if (watchService != null) {
+		if (watchService != null && watcherThread == null) {
 			WatchKey key;
 			while ((key = watchService.poll()) != null) {
+				Path folder = folders.get(key);
+				Set<ConfigHandler> handlers = new ObjectLinkedOpenHashSet<>();
 				for (WatchEvent<?> event : key.pollEvents()) {
-					if(event.kind() == StandardWatchEventKinds.OVERFLOW) continue;
-					ConfigHandler handler = configs.get(folders.get(key).resolve(((Path) event.context()).getFileName()));
-					if (handler != null && handler.reload()) {
-						onConfigChanged(handler);
+					if(folder == null) continue;
+					if(event.kind() == StandardWatchEventKinds.OVERFLOW) {
+						for(Map.Entry<Path, ConfigHandler> entry : configs.entrySet()) {
+							if(folder.equals(entry.getKey().getParent())) handlers.add(entry.getValue());
+						}
+						continue;
 					}
+					ConfigHandler handler = configs.get(folder.resolve(((Path) event.context()).getFileName()));
+					if (handler != null) handlers.add(handler);
+				}
+				for(ConfigHandler handler : handlers) {
+					reloadConfig(handler);
 				}
 				key.reset();
 			}
 		}
 	}
 	
+	/**
+	 * Called from the reload Threads as well, the listener itself is notified outside of the lock.
+	 */
 	void onConfigChanged(ConfigHandler handler) {
-		if(changeListener != null && syncedConfigs.contains(handler)) {
-			changeListener.onConfigChanged(handler);
+		if(changeListener == null) return;
+		boolean synced;
+		synchronized(sync) {
+			synced = syncedConfigs.contains(handler);
 		}
+		if(synced) changeListener.onConfigChanged(handler);
 	}
 	
 	public List<ConfigHandler> getAllConfigs() {
@@ -170,6 +416,8 @@ public class FileSystemWatcher {
 	}
 	
 	public List<ConfigHandler> getConfigsToSync() {
-		return new ObjectArrayList<>(syncedConfigs);
+		synchronized(sync) {
+			return new ObjectArrayList<>(syncedConfigs);
+		}
 	}
 }
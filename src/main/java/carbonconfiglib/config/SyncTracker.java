@@ -0,0 +1,191 @@
+package carbonconfiglib.config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import carbonconfiglib.api.buffer.IReadBuffer;
+import carbonconfiglib.api.buffer.IWriteBuffer;
+import carbonconfiglib.utils.SyncType;
+import speiger.src.collections.objects.lists.ObjectArrayList;
+
+/**
+ * Copyright 2026 Speiger, Meduris
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * Tracks the synced Entries of a Config so only the values that changed since a peer last acknowledged a sync have to be sent.
+ * Entries are identified by their {@link ConfigSchema} id, both sides have to register the same Entries for that.
+ * The Schema hash is sent along, so a mismatch is detected and can be fixed with a full resync that identifies Entries by path.
+ * The Tracker should be created after all Entries were registered. It keeps its own change state, so hasChanged/onSynced of the Entries are left untouched.
+ * {@link #update()} and the writes should happen on one thread, acknowledgements and peer removals can come from any thread.
+ */
+public final class SyncTracker {
+	public static final long NOT_SYNCED = -1L;
+	static final byte FULL = 0;
+	static final byte DELTA = 1;
+	
+	final ConfigSchema schema;
+	final SyncType type;
+	final ConfigEntry<?>[] entries;
+	final int[] ids;
+	final long[] changed;
+	final int[] seenChanges;
+	final Object[] syncedValues;
+	volatile long generation = 0L;
+	Map<UUID, Long> acknowledged = new ConcurrentHashMap<>();
+	
+	public SyncTracker(Config config, SyncType type) {
+		this.schema = config.getSchema();
+		this.type = type;
+		List<ConfigEntry<?>> synced = new ObjectArrayList<>();
+		for(int i = 0,m=schema.size();i<m;i++) {
+			ConfigEntry<?> entry = schema.getEntry(i);
+			if(entry.getSyncType() == type) synced.add(entry);
+		}
+		entries = synced.toArray(new ConfigEntry<?>[synced.size()]);
+		ids = new int[entries.length];
+		changed = new long[entries.length];
+		seenChanges = new int[entries.length];
+		syncedValues = new Object[entries.length];
+		for(int i = 0,m=entries.length;i<m;i++) {
+			ids[i] = schema.getId(entries[i]);
+			seenChanges[i] = entries[i].changeCount;
+			syncedValues[i] = entries[i].getValue();
+		}
+	}
+	
+	public long getGeneration() {
+		return generation;
+	}
+	
+	public int size() {
+		return entries.length;
+	}
+	
+	/**
+	 * Collects all Entries that changed since the last update into a new generation.
+	 * Should be called once before the deltas for all peers are written.
+	 * @return the current generation
+	 */
+	public long update() {
+		boolean found = false;
+		long next = generation + 1L;
+		for(int i = 0,m=entries.length;i<m;i++) {
+			int changes = entries[i].changeCount;
+			if(changes == seenChanges[i]) continue;
+			seenChanges[i] = changes;
+			//Only Entries that were touched are compared, setting the same value again isn't a change
+			Object value = entries[i].getValue();
+			if(Objects.deepEquals(syncedValues[i], value)) continue;
+			syncedValues[i] = value;
+			changed[i] = next;
+			found = true;
+		}
+		if(found) generation = next;
+		return generation;
+	}
+	
+	/**
+	 * @return true if the peer is missing changes of the current generation
+	 */
+	public boolean needsSync(UUID peer) {
+		return getAcknowledged(peer) != generation;
+	}
+	
+	public long getAcknowledged(UUID peer) {
+		return acknowledged.getOrDefault(peer, NOT_SYNCED);
+	}
+	
+	/**
+	 * Stores the generation a peer confirmed to have received, the next delta for that peer only contains newer changes.
+	 */
+	public void acknowledge(UUID peer, long generation) {
+		if(generation < 0L || generation > this.generation) acknowledged.remove(peer);
+		else acknowledged.put(peer, generation);
+	}
+	
+	/**
+	 * Peers that left or need a full resync should be removed.
+	 */
+	public void removePeer(UUID peer) {
+		acknowledged.remove(peer);
+	}
+	
+	public long writeDelta(IWriteBuffer buffer, UUID peer) {
+		return writeDelta(buffer, getAcknowledged(peer));
+	}
+	
+	/**
+	 * Writes all Entries that changed after the acknowledged generation.
+	 * Falls back to a full resync if nothing or an unknown generation was acknowledged.
+	 * @return the generation the receiver should acknowledge
+	 */
+	public long writeDelta(IWriteBuffer buffer, long acknowledged) {
+		if(acknowledged < 0L || acknowledged > generation) return writeFull(buffer);
+		int count = 0;
+		for(int i = 0,m=changed.length;i<m;i++) {
+			if(changed[i] > acknowledged) count++;
+		}
+		buffer.writeByte(DELTA);
+		buffer.writeLong(schema.getHash());
+		buffer.writeLong(generation);
+		buffer.writeVarInt(count);
+		for(int i = 0,m=changed.length;i<m && count > 0;i++) {
+			if(changed[i] <= acknowledged) continue;
+			buffer.writeVarInt(ids[i]);
+			entries[i].serialize(buffer);
+			count--;
+		}
+		return generation;
+	}
+	
+	/**
+	 * Writes every synced Entry identified by its path.
+	 * @return the generation the receiver should acknowledge
+	 */
+	public long writeFull(IWriteBuffer buffer) {
+		buffer.writeByte(FULL);
+		buffer.writeLong(schema.getHash());
+		buffer.writeLong(generation);
+		buffer.writeVarInt(entries.length);
+		for(int i = 0,m=entries.length;i<m;i++) {
+			buffer.writeString(schema.getPath(ids[i]));
+			entries[i].serialize(buffer);
+		}
+		return generation;
+	}
+	
+	/**
+	 * Applies a delta or full resync that was written by the Tracker of the other side.
+	 * @param owner the sender, used by Client Synced Entries
+	 * @return the generation to acknowledge to the sender, or {@link #NOT_SYNCED} if the data didn't match the local Entries and a full resync is required
+	 */
+	public long read(IReadBuffer buffer, UUID owner) {
+		byte kind = buffer.readByte();
+		long remoteSchema = buffer.readLong();
+		long remoteGeneration = buffer.readLong();
+		int count = buffer.readVarInt();
+		boolean delta = kind == DELTA;
+		if(delta && remoteSchema != schema.getHash()) return NOT_SYNCED;
+		for(int i = 0;i<count;i++) {
+			ConfigEntry<?> entry = delta ? schema.readEntry(buffer) : schema.getEntry(buffer.readString());
+			//Values aren't length prefixed, so an unknown Entry can't be skipped
+			if(entry == null || entry.getSyncType() != type) return NOT_SYNCED;
+			entry.deserialize(buffer, owner);
+		}
+		return remoteGeneration;
+	}
+}
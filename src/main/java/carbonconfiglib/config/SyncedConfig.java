@@ -1,12 +1,14 @@
 package carbonconfiglib.config;
 
+import java.util.Iterator;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BinaryOperator;
 import java.util.function.Supplier;
 
 import carbonconfiglib.api.buffer.IReadBuffer;
 import speiger.src.collections.objects.maps.impl.hash.Object2ObjectLinkedOpenHashMap;
-import speiger.src.collections.objects.maps.interfaces.Object2ObjectMap;
 
 /**
  * Copyright 2023 Speiger, Meduris
@@ -22,34 +24,147 @@ import speiger.src.collections.objects.maps.interfaces.Object2ObjectMap;
  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
  * See the License for the specific language governing permissions and
  * limitations under the License.
+ * 
+ * Holds the values Clients synced for a Client Synced Entry.
+ * Only the value of each Client is stored, everything else is shared with the Entry itself.
+ * If a {@link ClientConfigTable} was created for the Config the values are stored in the table instead.
  */
 public class SyncedConfig<T extends ConfigEntry<?>>
 {
-	Object2ObjectMap<UUID, T> mappedEntries = new Object2ObjectLinkedOpenHashMap<>();
+	Map<UUID, ClientValue> mappedValues = new Object2ObjectLinkedOpenHashMap<>();
 	Supplier<T> creator;
+	T defaultValue;
+	T decoder;
+	ClientConfigTable table;
+	int column = -1;
+	long idleTimeout = -1L;
+	long nextEviction = Long.MAX_VALUE;
 	
 	public SyncedConfig(Supplier<T> creator, T defaultValue) {
 		this.creator = creator;
-		mappedEntries.setDefaultReturnValue(defaultValue);
+		this.defaultValue = defaultValue;
+	}
+	
+	/**
+	 * Drops the values of Clients that weren't synced or requested for the given time.
+	 * Eviction happens while syncing or when {@link #evictIdle()} is called. With a {@link ClientConfigTable} the eviction of the table is used instead.
+	 * A negative time disables it, which is the default.
+	 */
+	public SyncedConfig<T> setIdleEviction(long time, TimeUnit unit) {
+		idleTimeout = time < 0L ? -1L : unit.toNanos(time);
+		nextEviction = idleTimeout < 0L ? Long.MAX_VALUE : System.nanoTime() + idleTimeout;
+		return this;
+	}
+	
+	void attach(ClientConfigTable table, int column) {
+		this.table = table;
+		this.column = column;
+		for(Map.Entry<UUID, ClientValue> entry : mappedValues.entrySet()) {
+			table.storeValue(entry.getKey(), column, entry.getValue().value);
+		}
+		mappedValues.clear();
 	}
 
 	public boolean isPresent(UUID id) {
-		return mappedEntries.containsKey(id);
+		return table != null ? table.isPresent(id, column) : mappedValues.containsKey(id);
 	}
 	
+	/**
+	 * Only the values of the Clients are stored, so every call creates a new detached Entry holding the value of the Client.
+	 * Changes to the returned Entry are not stored. Use {@link #getValue(UUID)} instead.
+	 * @return a new Entry with the value of the Client, or the Default Entry if the Client didn't sync anything.
+	 */
+	@Deprecated
+	@SuppressWarnings("unchecked")
 	public T get(UUID id) {
-		return mappedEntries.get(id);
+		if(!isPresent(id)) return defaultValue;
+		T result = creator.get();
+		((ConfigEntry<Object>)result).set(getValue(id));
+		return result;
+	}
+	
+	/**
+	 * @return the value of the Client, or the value of the Default Entry if the Client didn't sync anything.
+	 */
+	@SuppressWarnings("unchecked")
+	public <V> V getValue(UUID id) {
+		if(table != null) return (V)table.getValue(id, column);
+		ClientValue value = mappedValues.get(id);
+		if(value == null) return (V)defaultValue.getValue();
+		value.lastAccess = System.nanoTime();
+		return (V)value.value;
 	}
 
 	public T getDefault() {
-		return mappedEntries.getDefaultReturnValue(); 
+		return defaultValue; 
 	}
 	
+	/**
+	 * Creates a detached Entry for the Client like {@link #get(UUID)} does. Use {@link #getMergedValue(UUID, BinaryOperator)} instead.
+	 */
+	@Deprecated
 	public T getMerged(UUID id, BinaryOperator<T> function) {
-		return function.apply(mappedEntries.getDefaultReturnValue(), mappedEntries.apply(id));
+		return function.apply(defaultValue, get(id));
+	}
+	
+	/**
+	 * Merges the value of the Default Entry with the value of the Client without creating any Entries.
+	 */
+	@SuppressWarnings("unchecked")
+	public <V> V getMergedValue(UUID id, BinaryOperator<V> function) {
+		return function.apply((V)defaultValue.getValue(), getValue(id));
+	}
+	
+	/**
+	 * Should be called when a Client disconnects.
+	 * @return true if the Client had a value
+	 */
+	public boolean remove(UUID id) {
+		return table != null ? table.remove(id, column) : mappedValues.remove(id) != null;
+	}
+	
+	public void clear() {
+		if(table != null) table.clear(column);
+		else mappedValues.clear();
+	}
+	
+	public int size() {
+		return table != null ? table.size(column) : mappedValues.size();
+	}
+	
+	/**
+	 * Drops all values that are idle for longer then the idle eviction time.
+	 * @return the amount of dropped values
+	 */
+	public int evictIdle() {
+		if(idleTimeout < 0L) return 0;
+		long now = System.nanoTime();
+		nextEviction = now + idleTimeout;
+		int removed = 0;
+		for(Iterator<ClientValue> iter = mappedValues.values().iterator();iter.hasNext();) {
+			if(now - iter.next().lastAccess <= idleTimeout) continue;
+			iter.remove();
+			removed++;
+		}
+		return removed;
 	}
 	
 	public void onSync(IReadBuffer buffer, UUID owner) {
-		mappedEntries.computeIfAbsent(owner, T -> creator.get()).deserializeValue(buffer);
+		if(decoder == null) decoder = creator.get();
+		decoder.deserializeValue(buffer);
+		if(table != null) {
+			table.store(owner, column, decoder);
+			return;
+		}
+		ClientValue value = mappedValues.get(owner);
+		if(value == null) mappedValues.put(owner, value = new ClientValue());
+		value.value = decoder.getValue();
+		value.lastAccess = System.nanoTime();
+		if(value.lastAccess - nextEviction >= 0L) evictIdle();
+	}
+	
+	static final class ClientValue {
+		Object value;
+		long lastAccess;
 	}
 }
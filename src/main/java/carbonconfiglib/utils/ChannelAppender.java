@@ -0,0 +1,115 @@
+package carbonconfiglib.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Copyright 2026 Speiger, Meduris
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * Appendable that encodes the text as UTF-8 into a small Buffer and writes it to the Channel whenever the Buffer is full.
+ * The written bytes are hashed on the way, so the {@link FileFingerprint} is known without reading the file again.
+ * {@link #finish()} has to be called at the end, the Channel itself is not closed.
+ */
+public final class ChannelAppender implements Appendable {
+	final WritableByteChannel channel;
+	final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+	final CharBuffer chars = CharBuffer.allocate(4096);
+	final ByteBuffer bytes = ByteBuffer.allocate(8192);
+	long hash = FileFingerprint.EMPTY_HASH;
+	long size = 0L;
+	
+	public ChannelAppender(WritableByteChannel channel) {
+		this.channel = channel;
+	}
+	
+	@Override
+	public ChannelAppender append(CharSequence csq) throws IOException {
+		if(csq == null) csq = "null";
+		return append(csq, 0, csq.length());
+	}
+	
+	@Override
+	public ChannelAppender append(CharSequence csq, int start, int end) throws IOException {
+		if(csq == null) csq = "null";
+		if(start < 0 || end > csq.length() || start > end) throw new IndexOutOfBoundsException("Range ["+start+", "+end+"] is out of bounds for length ["+csq.length()+"]");
+		while(start < end) {
+			if(!chars.hasRemaining()) encode(false);
+			int amount = Math.min(end - start, chars.remaining());
+			if(csq instanceof String) chars.put((String)csq, start, start + amount);
+			else {
+				for(int i = start,m=start+amount;i<m;i++) {
+					chars.put(csq.charAt(i));
+				}
+			}
+			start += amount;
+		}
+		return this;
+	}
+	
+	@Override
+	public ChannelAppender append(char c) throws IOException {
+		if(!chars.hasRemaining()) encode(false);
+		chars.put(c);
+		return this;
+	}
+	
+	/**
+	 * Encodes and writes everything that is left.
+	 * @throws java.nio.charset.CharacterCodingException if the text contained broken surrogates
+	 */
+	public void finish() throws IOException {
+		encode(true);
+		CoderResult result;
+		while((result = encoder.flush(bytes)).isOverflow()) {
+			drain();
+		}
+		if(result.isError()) result.throwException();
+		drain();
+	}
+	
+	private void encode(boolean endOfInput) throws IOException {
+		chars.flip();
+		while(true) {
+			CoderResult result = encoder.encode(chars, bytes, endOfInput);
+			if(result.isOverflow()) drain();
+			else if(result.isUnderflow()) break;
+			else result.throwException();
+		}
+		//A high surrogate at the end stays in the Buffer until its low surrogate was appended
+		chars.compact();
+	}
+	
+	private void drain() throws IOException {
+		bytes.flip();
+		hash = FileFingerprint.hash(hash, bytes);
+		size += bytes.remaining();
+		while(bytes.hasRemaining()) {
+			channel.write(bytes);
+		}
+		bytes.clear();
+	}
+	
+	/**
+	 * @return the Fingerprint of everything that was written, only complete after {@link #finish()}
+	 */
+	public FileFingerprint toFingerprint() {
+		return new FileFingerprint(size, FileFingerprint.UNKNOWN_TIME, hash);
+	}
+}
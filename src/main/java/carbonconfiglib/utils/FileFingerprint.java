@@ -0,0 +1,157 @@
+package carbonconfiglib.utils;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Copyright 2026 Speiger, Meduris
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * Cheap fingerprint of a File: size, last modified time and a 64 bit FNV-1a hash of the content.
+ * The content is always hashed, size and time alone can't tell if a File was changed, so only size and hash are compared.
+ */
+public final class FileFingerprint {
+	public static final long EMPTY_HASH = 0xcbf29ce484222325L;
+	static final long PRIME = 0x100000001b3L;
+	public static final long UNKNOWN_TIME = Long.MIN_VALUE;
+	
+	final long size;
+	final long lastModified;
+	final long hash;
+	
+	public FileFingerprint(long size, long lastModified, long hash) {
+		this.size = size;
+		this.lastModified = lastModified;
+		this.hash = hash;
+	}
+	
+	/**
+	 * Fingerprint of data that is about to be written, the time is filled in with {@link #withLastModified(Path)} after the write.
+	 */
+	public static FileFingerprint of(ByteBuffer data) {
+		return new FileFingerprint(data.remaining(), UNKNOWN_TIME, hash(EMPTY_HASH, data));
+	}
+	
+	public static FileFingerprint read(Path file) throws IOException {
+		long time = Files.getLastModifiedTime(file).toMillis();
+		try(HashingInputStream input = new HashingInputStream(Files.newInputStream(file))) {
+			byte[] buffer = new byte[8192];
+			while(input.read(buffer) != -1);
+			return input.toFingerprint(time);
+		}
+	}
+	
+	public static long hash(long hash, byte[] data, int offset, int length) {
+		for(int i = offset,m=offset+length;i<m;i++) {
+			hash = (hash ^ (data[i] & 0xFF)) * PRIME;
+		}
+		return hash;
+	}
+	
+	/**
+	 * Hashes the remaining bytes of the buffer without moving its position.
+	 */
+	public static long hash(long hash, ByteBuffer data) {
+		for(int i = data.position(),m=data.limit();i<m;i++) {
+			hash = (hash ^ (data.get(i) & 0xFF)) * PRIME;
+		}
+		return hash;
+	}
+	
+	public FileFingerprint withLastModified(Path file) throws IOException {
+		return new FileFingerprint(size, Files.getLastModifiedTime(file).toMillis(), hash);
+	}
+	
+	public boolean hasSameContent(FileFingerprint other) {
+		return other != null && size == other.size && hash == other.hash;
+	}
+	
+	public long getSize() {
+		return size;
+	}
+	
+	public long getLastModified() {
+		return lastModified;
+	}
+	
+	public long getHash() {
+		return hash;
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if(obj instanceof FileFingerprint) {
+			FileFingerprint other = (FileFingerprint)obj;
+			return other.size == size && other.lastModified == lastModified && other.hash == hash;
+		}
+		return false;
+	}
+	
+	@Override
+	public int hashCode() {
+		return Long.hashCode(hash);
+	}
+	
+	@Override
+	public String toString() {
+		return "FileFingerprint[size="+size+", lastModified="+lastModified+", hash="+Long.toHexString(hash)+"]";
+	}
+	
+	public static class HashingInputStream extends FilterInputStream {
+		long hash = EMPTY_HASH;
+		long size = 0L;
+		
+		public HashingInputStream(InputStream in) {
+			super(in);
+		}
+		
+		@Override
+		public int read() throws IOException {
+			int result = super.read();
+			if(result != -1) {
+				hash = (hash ^ result) * PRIME;
+				size++;
+			}
+			return result;
+		}
+		
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int result = super.read(b, off, len);
+			if(result > 0) {
+				hash = hash(hash, b, off, result);
+				size += result;
+			}
+			return result;
+		}
+		
+		@Override
+		public long skip(long n) throws IOException {
+			throw new IOException("Skipping would break the Hash");
+		}
+		
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+		
+		public FileFingerprint toFingerprint(long lastModified) {
+			return new FileFingerprint(size, lastModified, hash);
+		}
+	}
+}
@@ -1,8 +1,14 @@
 package carbonconfiglib.utils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -10,6 +16,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.StringJoiner;
 
+import carbonconfiglib.api.IConfigSerializer;
 import speiger.src.collections.objects.lists.ObjectArrayList;
 import speiger.src.collections.objects.maps.interfaces.Object2ObjectMap;
 import speiger.src.collections.objects.sets.ObjectLinkedOpenHashSet;
@@ -31,6 +38,18 @@ import speiger.src.collections.objects.sets.ObjectLinkedOpenHashSet;
  */
 public class Helpers {
 	private static final String[] EMPTY = new String[0];
+	private static final String[] INDENTS = new String[16];
+	private static final String[] LINE_INDENTS = new String[16];
+	private static final ParseResult<?> NUMBER_ERROR = ParseResult.error((String)null, "Couldn't parse Number");
+	
+	static {
+		for(int i = 0;i<INDENTS.length;i++) {
+			char[] arr = new char[i * 2];
+			Arrays.fill(arr, ' ');
+			INDENTS[i] = new String(arr);
+			LINE_INDENTS[i] = '\n' + INDENTS[i];
+		}
+	}
 
 	public static boolean validateString(CharSequence s) {
 		return s == null || s.length() == 0 || s.charAt(0) <= ' ' || s.charAt(s.length() - 1) <= ' ';
@@ -66,11 +85,96 @@ public class Helpers {
 		catch(Exception e) { e.printStackTrace(); }
 	}
 	
+	/**
+	 * Writes the data into a sibling temp file, forces it to disk and then moves it over the target.
+	 * So a crash mid write leaves either the old or the new file behind but never a truncated one.
+	 * If the FileSystem doesn't support atomic moves a normal replacing move is used instead.
+	 */
+	public static void writeAtomically(Path file, ByteBuffer data) throws IOException {
+		writeAtomically(file, T -> {
+			writeFully(T, data);
+			return null;
+		});
+	}
+	
+	/**
+	 * Same as {@link #writeAtomically(Path, ByteBuffer)} but the content is streamed into the Channel by the task.
+	 * @return the result of the task
+	 */
+	public static <T> T writeAtomically(Path file, IChannelTask<T> task) throws IOException {
+		Path temp = file.resolveSibling(file.getFileName().toString()+".tmp");
+		try {
+			T result;
+			try(FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				result = task.write(channel);
+				channel.force(true);
+			}
+			try { Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE); }
+			catch(AtomicMoveNotSupportedException e) { Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING); }
+			return result;
+		}
+		finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+	
+	public static void writeFully(Path file, ByteBuffer data) throws IOException {
+		writeFully(file, T -> {
+			writeFully(T, data);
+			return null;
+		});
+	}
+	
+	public static <T> T writeFully(Path file, IChannelTask<T> task) throws IOException {
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			return task.write(channel);
+		}
+	}
+	
+	private static void writeFully(FileChannel channel, ByteBuffer data) throws IOException {
+		ByteBuffer buffer = data.duplicate();
+		while(buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+	
 	public static String generateIndent(int level) {
+		if(level >= 0 && level < INDENTS.length) return INDENTS[level];
 		char[] arr = new char[level * 2];
 		Arrays.fill(arr, ' ');
 		return new String(arr);
 	}
+	
+	/**
+	 * @return a line break followed by the indent of the level
+	 */
+	public static String generateLineIndent(int level) {
+		if(level >= 0 && level < LINE_INDENTS.length) return LINE_INDENTS[level];
+		return '\n' + generateIndent(level);
+	}
+	
+	/**
+	 * Appends the input and replaces every line break with the separator.
+	 * Matches the same line breaks as the "\\R" regex, without compiling a Pattern each time.
+	 */
+	public static StringBuilder appendLines(StringBuilder builder, String input, String separator) {
+		try { appendLines((Appendable)builder, input, separator); }
+		catch(IOException e) { throw new UncheckedIOException(e); }
+		return builder;
+	}
+	
+	public static Appendable appendLines(Appendable output, String input, String separator) throws IOException {
+		int last = 0;
+		for(int i = 0,m=input.length();i<m;i++) {
+			char c = input.charAt(i);
+			if(c > '\r' && c != '\u0085' && c != '\u2028' && c != '\u2029') continue;
+			if(c < '\n') continue;
+			output.append(input, last, i).append(separator);
+			if(c == '\r' && i + 1 < m && input.charAt(i + 1) == '\n') i++;
+			last = i + 1;
+		}
+		return output.append(input, last, input.length());
+	}
 
 	public static String[] validateComments(String[] inputs) {
 		if (inputs == null) return null;
@@ -215,23 +319,36 @@ public class Helpers {
 	}
 
 	public static ParseResult<Integer> parseInt(String value) {
-		try { return ParseResult.success(Integer.parseInt(value)); }
-		catch (Exception e) { return ParseResult.error(value, e, "Couldn't parse Number"); }
+		NumberParser parser = NumberParser.get();
+		int result = value == null ? NumberParser.EMPTY : parser.parseInt(value, 0, value.length());
+		return result == NumberParser.SUCCESS ? ParseResult.success(parser.intValue()) : numberError(value, result);
 	}
 	
 	public static ParseResult<Long> parseLong(String value) {
-		try { return ParseResult.success(Long.parseLong(value)); }
-		catch (Exception e) { return ParseResult.error(value, e, "Couldn't parse Number"); }
+		NumberParser parser = NumberParser.get();
+		int result = value == null ? NumberParser.EMPTY : parser.parseLong(value, 0, value.length());
+		return result == NumberParser.SUCCESS ? ParseResult.success(parser.longValue()) : numberError(value, result);
 	}
 	
 	public static ParseResult<Float> parseFloat(String value) {
-		try { return ParseResult.success(Float.parseFloat(value)); }
-		catch (Exception e) { return ParseResult.error(value, e, "Couldn't parse Number"); }
+		NumberParser parser = NumberParser.get();
+		int result = value == null ? NumberParser.EMPTY : parser.parseFloat(value, 0, value.length());
+		return result == NumberParser.SUCCESS ? ParseResult.success(parser.floatValue()) : numberError(value, result);
 	}
 	
 	public static ParseResult<Double> parseDouble(String value) {
-		try { return ParseResult.success(Double.parseDouble(value)); }
-		catch (Exception e) { return ParseResult.error(value, e, "Couldn't parse Number"); }
+		NumberParser parser = NumberParser.get();
+		int result = value == null ? NumberParser.EMPTY : parser.parseDouble(value, 0, value.length());
+		return result == NumberParser.SUCCESS ? ParseResult.success(parser.doubleValue()) : numberError(value, result);
+	}
+	
+	/**
+	 * Without advanced error logging a shared result is returned, so failed Numbers don't allocate anything. It doesn't carry the parsed text.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> ParseResult<T> numberError(String value, int code) {
+		if(!IConfigSerializer.ADVANCED_ERROR_LOGGING) return (ParseResult<T>)NUMBER_ERROR;
+		return ParseResult.error(value, new NumberFormatException(NumberParser.getMessage(code)+": \""+value+"\""), "Couldn't parse Number");
 	}
 	
 	public static <E extends Enum<E>> ParseResult<E> parseEnum(Class<E> enumClass, String value) {
@@ -247,4 +364,8 @@ public class Helpers {
 		}
 		return values;
 	}
-}
\ No newline at end of file
+	
+	public static interface IChannelTask<T> {
+		public T write(FileChannel channel) throws IOException;
+	}
+}
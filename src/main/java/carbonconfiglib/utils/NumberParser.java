@@ -0,0 +1,231 @@
+package carbonconfiglib.utils;
+
+/**
+ * Copyright 2026 Speiger, Meduris
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * Parses numbers from a range of a CharSequence and reports problems as return codes instead of exceptions.
+ * The accepted input is the same as {@link Integer#parseInt(String)}, {@link Long#parseLong(String)}, {@link Float#parseFloat(String)} and {@link Double#parseDouble(String)}.
+ * Decimals that fit into the mantissa with a small exponent are computed directly (Clinger's fast path), anything else that is valid goes through the JDK.
+ * The parsed value is kept in the parser until the next call, so a parser should only be used by one thread at a time.
+ */
+public final class NumberParser {
+	public static final int SUCCESS = 0;
+	public static final int EMPTY = 1;
+	public static final int INVALID = 2;
+	public static final int OUT_OF_RANGE = 3;
+	static final int SLOW_PATH = -1;
+	static final ThreadLocal<NumberParser> LOCAL = ThreadLocal.withInitial(NumberParser::new);
+	static final double[] DOUBLE_POWERS = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+	static final float[] FLOAT_POWERS = {1e0F, 1e1F, 1e2F, 1e3F, 1e4F, 1e5F, 1e6F, 1e7F, 1e8F, 1e9F, 1e10F};
+	
+	long longValue;
+	float floatValue;
+	double doubleValue;
+	boolean negative;
+	long mantissa;
+	int exponent;
+	boolean exact;
+	
+	/**
+	 * @return the parser of the current Thread
+	 */
+	public static NumberParser get() {
+		return LOCAL.get();
+	}
+	
+	public static String getMessage(int code) {
+		switch(code) {
+			case SUCCESS: return "Success";
+			case EMPTY: return "Empty Number";
+			case OUT_OF_RANGE: return "Number out of Range";
+			default: return "Invalid Number";
+		}
+	}
+	
+	public int intValue() {
+		return (int)longValue;
+	}
+	
+	public long longValue() {
+		return longValue;
+	}
+	
+	public float floatValue() {
+		return floatValue;
+	}
+	
+	public double doubleValue() {
+		return doubleValue;
+	}
+	
+	public int parseInt(CharSequence text, int start, int end) {
+		return parseInteger(text, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE);
+	}
+	
+	public int parseLong(CharSequence text, int start, int end) {
+		return parseInteger(text, start, end, Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+	
+	private int parseInteger(CharSequence text, int start, int end, long min, long max) {
+		if(start >= end) return EMPTY;
+		char first = text.charAt(start);
+		boolean negative = first == '-';
+		if(negative || first == '+') {
+			if(++start >= end) return INVALID;
+		}
+		//Accumulated negatively, like the JDK does, so the minimum value doesn't overflow
+		long limit = negative ? min : -max;
+		long multiplyLimit = limit / 10;
+		long result = 0;
+		for(int i = start;i<end;i++) {
+			char value = text.charAt(i);
+			int digit = value < 128 ? value - '0' : Character.digit(value, 10);
+			if(digit < 0 || digit > 9) return INVALID;
+			if(result < multiplyLimit) return OUT_OF_RANGE;
+			result *= 10;
+			if(result < limit + digit) return OUT_OF_RANGE;
+			result -= digit;
+		}
+		longValue = negative ? result : -result;
+		return SUCCESS;
+	}
+	
+	public int parseFloat(CharSequence text, int start, int end) {
+		while(start < end && text.charAt(start) <= ' ') start++;
+		while(end > start && text.charAt(end - 1) <= ' ') end--;
+		if(start >= end) return EMPTY;
+		int result = scanDecimal(text, start, end);
+		if(result == INVALID) return INVALID;
+		if(result == SUCCESS) {
+			if(mantissa == 0L) {
+				floatValue = negative ? -0F : 0F;
+				return SUCCESS;
+			}
+			if(exact && mantissa <= (1L << 24) && exponent >= -10 && exponent <= 10) {
+				float value = mantissa;
+				value = exponent < 0 ? value / FLOAT_POWERS[-exponent] : value * FLOAT_POWERS[exponent];
+				floatValue = negative ? -value : value;
+				return SUCCESS;
+			}
+		}
+		try {
+			floatValue = Float.parseFloat(text.subSequence(start, end).toString());
+			return SUCCESS;
+		}
+		catch(NumberFormatException e) {
+			return INVALID;
+		}
+	}
+	
+	public int parseDouble(CharSequence text, int start, int end) {
+		while(start < end && text.charAt(start) <= ' ') start++;
+		while(end > start && text.charAt(end - 1) <= ' ') end--;
+		if(start >= end) return EMPTY;
+		int result = scanDecimal(text, start, end);
+		if(result == INVALID) return INVALID;
+		if(result == SUCCESS) {
+			if(mantissa == 0L) {
+				doubleValue = negative ? -0D : 0D;
+				return SUCCESS;
+			}
+			if(exact && mantissa <= (1L << 53) && exponent >= -22 && exponent <= 22) {
+				double value = mantissa;
+				value = exponent < 0 ? value / DOUBLE_POWERS[-exponent] : value * DOUBLE_POWERS[exponent];
+				doubleValue = negative ? -value : value;
+				return SUCCESS;
+			}
+		}
+		try {
+			doubleValue = Double.parseDouble(text.subSequence(start, end).toString());
+			return SUCCESS;
+		}
+		catch(NumberFormatException e) {
+			return INVALID;
+		}
+	}
+	
+	/**
+	 * Splits a trimmed decimal into sign, mantissa and exponent.
+	 * NaN, Infinity and hex notation are left to the JDK, anything else that isn't a valid decimal is rejected right away.
+	 */
+	private int scanDecimal(CharSequence text, int start, int end) {
+		int index = start;
+		char value = text.charAt(index);
+		negative = value == '-';
+		if(negative || value == '+') {
+			if(++index >= end) return INVALID;
+			value = text.charAt(index);
+		}
+		if(value == 'N' || value == 'I') return SLOW_PATH;
+		if(value == '0' && index + 1 < end && (text.charAt(index + 1) | 0x20) == 'x') return SLOW_PATH;
+		long mantissa = 0L;
+		int digits = 0;
+		int exponent = 0;
+		boolean exact = true;
+		boolean hasDigits = false;
+		for(;index<end;index++) {
+			value = text.charAt(index);
+			if(value < '0' || value > '9') break;
+			hasDigits = true;
+			if(digits < 18) {
+				mantissa = mantissa * 10 + (value - '0');
+				if(mantissa != 0L) digits++;
+			}
+			else {
+				exact &= value == '0';
+				exponent++;
+			}
+		}
+		if(index < end && text.charAt(index) == '.') {
+			for(index++;index<end;index++) {
+				value = text.charAt(index);
+				if(value < '0' || value > '9') break;
+				hasDigits = true;
+				if(digits < 18) {
+					mantissa = mantissa * 10 + (value - '0');
+					if(mantissa != 0L) digits++;
+					exponent--;
+				}
+				else exact &= value == '0';
+			}
+		}
+		if(!hasDigits) return INVALID;
+		if(index < end && (text.charAt(index) | 0x20) == 'e') {
+			boolean negativeExponent = false;
+			if(++index < end && (text.charAt(index) == '-' || text.charAt(index) == '+')) {
+				negativeExponent = text.charAt(index++) == '-';
+			}
+			int exponentStart = index;
+			int explicit = 0;
+			for(;index<end;index++) {
+				value = text.charAt(index);
+				if(value < '0' || value > '9') break;
+				//Large enough to leave the fast path, the JDK handles the actual value
+				if(explicit < 100000) explicit = explicit * 10 + (value - '0');
+			}
+			if(index == exponentStart) return INVALID;
+			exponent += negativeExponent ? -explicit : explicit;
+		}
+		if(index < end) {
+			value = text.charAt(index);
+			if(value == 'f' || value == 'F' || value == 'd' || value == 'D') index++;
+		}
+		if(index != end) return INVALID;
+		this.mantissa = mantissa;
+		this.exponent = exponent;
+		this.exact = exact;
+		return SUCCESS;
+	}
+}
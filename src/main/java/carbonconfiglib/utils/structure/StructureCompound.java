@@ -1,5 +1,6 @@
 package carbonconfiglib.utils.structure;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -24,6 +25,7 @@ import carbonconfiglib.utils.structure.StructureList.ListBuilder;
 import carbonconfiglib.utils.structure.StructureList.ListData;
 import carbonconfiglib.utils.structure.StructureList.ListEntry;
 import carbonconfiglib.utils.structure.StructureList.ListWrapper;
+import carbonconfiglib.utils.structure.StructureParser.IRangeParser;
 import speiger.src.collections.objects.lists.ObjectArrayList;
 import speiger.src.collections.objects.lists.ObjectList;
 import speiger.src.collections.objects.maps.impl.hash.Object2ObjectLinkedOpenHashMap;
@@ -52,6 +54,7 @@ public class StructureCompound
 		Map<String, IEntrySettings> entrySettings = new Object2ObjectLinkedOpenHashMap<>();
 		IEntrySettings settings;
 		boolean isNewLined = true;
+		ICompoundEntry[] entryArray;
 		
 		@Override
 		public StructureType getDataType() {return StructureType.COMPOUND; }
@@ -77,8 +80,22 @@ public class StructureCompound
 			return entries.containsKey(key);
 		}
 		
+		ICompoundEntry[] getEntryArray() {
+			if(entryArray == null) entryArray = entries.values().toArray(new ICompoundEntry[entries.size()]);
+			return entryArray;
+		}
+		
 		public ParsedMap parse(String input) {
-			return parseMap(Helpers.splitArguments(Helpers.splitCompound(input.trim()), getKeys(), false));
+			return new StructureParser(input).parseCompound(this, 0, input.length());
+		}
+		
+		/**
+		 * Same as {@link #parse(String)} but malformed input, like unbalanced brackets, is reported with its position.
+		 */
+		public ParseResult<ParsedMap> tryParse(String input) {
+			StructureParser parser = new StructureParser(input);
+			ParsedMap result = parser.parseCompound(this, 0, input.length());
+			return parser.hasError() ? ParseResult.partial(result, IllegalArgumentException::new, parser.getError()) : ParseResult.success(result);
 		}
 		
 		public String serialize(ParsedMap map, boolean allowMultiline) {
@@ -314,6 +331,9 @@ public class StructureCompound
 		public String getName();
 		public IRange getRange();
 		public void parse(Map<String, String> data, ParsedMap output);
+		public default void parse(StructureParser parser, int start, int end, ParsedMap output) {
+			parse(Collections.singletonMap(getName(), parser.substring(start, end)), output);
+		}
 		public void serialize(ParsedMap input, Map<String, String> output, boolean allowMultiline, int indent);
 		public ObjectList<ISuggestionProvider> getSuggestions();
 	}
@@ -415,6 +435,11 @@ public class StructureCompound
 			output.put(name, ParsedList.unwrap(data.parse(input.getOrDefault(name, ""))));
 		}
 		
+		@Override
+		public void parse(StructureParser parser, int start, int end, ParsedMap output) {
+			output.put(name, ParsedList.unwrap(parser.parseList(data, start, end)));
+		}
+		
 		@Override
 		public void serialize(ParsedMap input, Map<String, String> output, boolean allowMultiline, int indent) {
 			output.put(name, data.serialize(input.get(name, ParsedList.class), allowMultiline, indent));
@@ -454,6 +479,11 @@ public class StructureCompound
 			output.put(name, parse.apply(data.parse(input.getOrDefault(name, ""))));
 		}
 		
+		@Override
+		public void parse(StructureParser parser, int start, int end, ParsedMap output) {
+			output.put(name, parse.apply(parser.parseCompound(data, start, end)));
+		}
+		
 		@Override
 		public void serialize(ParsedMap input, Map<String, String> output, boolean allowMultiline, int indent) {
 			output.put(name, data.serialize(serialize.apply(input.getUnsafe(name)), allowMultiline, indent));
@@ -466,6 +496,7 @@ public class StructureCompound
 	static class CompoundEntry<T> implements IWritableCompoundEntry {
 		ObjectList<ISuggestionProvider> providers = new ObjectArrayList<>();
 		final Function<String, ParseResult<T>> parse;
+		final IRangeParser<T> rangeParse;
 		final Function<T, String> serialize;
 		final IStructuredData type;
 		final String name;
@@ -474,9 +505,14 @@ public class StructureCompound
 		IRange range;
 		
 		public CompoundEntry(String name, IStructuredData type, Function<String, ParseResult<T>> parse, Function<T, String> serialize) {
+			this(name, type, parse, null, serialize);
+		}
+		
+		public CompoundEntry(String name, IStructuredData type, Function<String, ParseResult<T>> parse, IRangeParser<T> rangeParse, Function<T, String> serialize) {
 			this.name = name;
 			this.type = type;
 			this.parse = parse;
+			this.rangeParse = rangeParse;
 			this.serialize = serialize;
 		}
 		
@@ -495,6 +531,12 @@ public class StructureCompound
 		@Override
 		public void parse(Map<String, String> data, ParsedMap output) { output.put(name, parse.apply(data.getOrDefault(name, ""))); }
 		@Override
+		public void parse(StructureParser parser, int start, int end, ParsedMap output) {
+			//Only invalid values go through the String parser, since they need the error
+			T value = rangeParse == null ? null : rangeParse.parse(parser, start, end);
+			output.put(name, value != null ? ParseResult.success(value) : parse.apply(parser.substring(start, end)));
+		}
+		@Override
 		public void serialize(ParsedMap input, Map<String, String> output, boolean allowMultiline, int indent) { output.put(name, serialize.apply(input.getUnsafe(name))); }
 		@Override
 		public void withRange(IRange range) { this.range = range; }
@@ -508,10 +550,10 @@ public class StructureCompound
 		private static CompoundEntry<?> create(String name, EntryDataType type) {
 			switch(type) {
 				case BOOLEAN: return new CompoundEntry<>(name, type.toSimpleType(), Helpers::parseBoolean, String::valueOf);
-				case INTEGER: return new CompoundEntry<>(name, type.toSimpleType(), Helpers::parseInt, Helpers::fuzzyIntegerToString);
-				case LONG: return new CompoundEntry<>(name, type.toSimpleType(), Helpers::parseLong, Helpers::fuzzyLongToString);
-				case FLOAT: return new CompoundEntry<>(name, type.toSimpleType(), Helpers::parseFloat, Helpers::fuzzyFloatToString);
-				case DOUBLE: return new CompoundEntry<>(name, type.toSimpleType(), Helpers::parseDouble, Helpers::fuzzyDoubleToString);
+				case INTEGER: return new CompoundEntry<>(name, type.toSimpleType(), Helpers::parseInt, StructureParser::parseInt, Helpers::fuzzyIntegerToString);
+				case LONG: return new CompoundEntry<>(name, type.toSimpleType(), Helpers::parseLong, StructureParser::parseLong, Helpers::fuzzyLongToString);
+				case FLOAT: return new CompoundEntry<>(name, type.toSimpleType(), Helpers::parseFloat, StructureParser::parseFloat, Helpers::fuzzyFloatToString);
+				case DOUBLE: return new CompoundEntry<>(name, type.toSimpleType(), Helpers::parseDouble, StructureParser::parseDouble, Helpers::fuzzyDoubleToString);
 				case STRING: return new CompoundEntry<>(name, type.toSimpleType(), Helpers::parseString, Function.identity());
 				default: throw new IllegalStateException("Unsupported Type");
 			}
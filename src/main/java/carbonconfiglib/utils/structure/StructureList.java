@@ -1,5 +1,6 @@
 package carbonconfiglib.utils.structure;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -14,6 +15,7 @@ import carbonconfiglib.utils.ParsedCollections.ParsedList;
 import carbonconfiglib.utils.ParsedCollections.ParsedMap;
 import carbonconfiglib.utils.structure.IStructuredData.EntryDataType;
 import carbonconfiglib.utils.structure.IStructuredData.SimpleData;
+import carbonconfiglib.utils.structure.StructureParser.IRangeParser;
 import carbonconfiglib.utils.structure.StructureCompound.CompoundData;
 import speiger.src.collections.objects.lists.ObjectArrayList;
 import speiger.src.collections.objects.lists.ObjectList;
@@ -54,9 +56,16 @@ public class StructureList
 		IWritableListEntry getEntry() { return (IWritableListEntry)type; }
 		
 		public ParsedList parse(String data) {
-			ParsedList list = new ParsedList();
-			type.parse(ObjectArrayList.wrap(Helpers.splitCompoundArray(Helpers.removeLayer(data.trim(), 0))), list);
-			return list;
+			return new StructureParser(data).parseList(this, 0, data.length());
+		}
+		
+		/**
+		 * Same as {@link #parse(String)} but malformed input, like unbalanced brackets, is reported with its position.
+		 */
+		public ParseResult<ParsedList> tryParse(String data) {
+			StructureParser parser = new StructureParser(data);
+			ParsedList result = parser.parseList(this, 0, data.length());
+			return parser.hasError() ? ParseResult.partial(result, IllegalArgumentException::new, parser.getError()) : ParseResult.success(result);
 		}
 		
 		public String serialize(ParsedList data, boolean allowMultine) {
@@ -140,6 +149,9 @@ public class StructureList
 		public boolean isForced();
 		public IRange getRange();
 		public void parse(List<String> input, ParsedList output);
+		public default void parse(StructureParser parser, int start, int end, ParsedList output) {
+			parse(Collections.singletonList(parser.substring(start, end)), output);
+		}
 		public void serialize(ParsedList input, List<String> output, boolean allowMultine, int indent);
 		public ObjectList<ISuggestionProvider> getSuggestions();
 	}
@@ -177,6 +189,11 @@ public class StructureList
 			}
 		}
 		
+		@Override
+		public void parse(StructureParser parser, int start, int end, ParsedList output) {
+			output.add(parse.apply(parser.parseCompound(data, start, end)));
+		}
+		
 		@Override
 		public void serialize(ParsedList input, List<String> output, boolean allowMultine, int indent) {
 			for(int i = 0,m=input.size();i<m;i++) {
@@ -214,6 +231,11 @@ public class StructureList
 			}
 		}
 		
+		@Override
+		public void parse(StructureParser parser, int start, int end, ParsedList output) {
+			output.add(ParsedList.unwrap(parser.parseList(data, start, end)));
+		}
+		
 		@Override
 		public void serialize(ParsedList input, List<String> output, boolean allowMultine, int indent) {
 			for(int i = 0,m=input.size();i<m;i++) {
@@ -232,14 +254,20 @@ public class StructureList
 	static class ListEntry<T> implements IWritableListEntry {
 		ObjectList<ISuggestionProvider> providers = new ObjectArrayList<>();
 		final Function<String, ParseResult<T>> parse;
+		final IRangeParser<T> rangeParse;
 		final Function<T, String> serialize;
 		final IStructuredData type;
 		boolean forcedSuggestions;
 		IRange range;
 		
 		public ListEntry(IStructuredData type, Function<String, ParseResult<T>> parse, Function<T, String> serialize) {
+			this(type, parse, null, serialize);
+		}
+		
+		public ListEntry(IStructuredData type, Function<String, ParseResult<T>> parse, IRangeParser<T> rangeParse, Function<T, String> serialize) {
 			this.type = type;
 			this.parse = parse;
+			this.rangeParse = rangeParse;
 			this.serialize = serialize;
 		}
 		
@@ -260,6 +288,13 @@ public class StructureList
 			}
 		}
 		
+		@Override
+		public void parse(StructureParser parser, int start, int end, ParsedList output) {
+			//Invalid values end up as null either way
+			if(rangeParse != null) output.add(rangeParse.parse(parser, start, end));
+			else output.add(parse.apply(parser.substring(start, end)).getValue());
+		}
+		
 		@Override
 		public void serialize(ParsedList input, List<String> output, boolean allowMultine, int indent) {
 			for(int i = 0,m=input.size();i<m;i++) {
@@ -277,10 +312,10 @@ public class StructureList
 		static ListEntry<?> create(EntryDataType type) {
 			switch(type) {
 				case BOOLEAN: return new ListEntry<>(type.toSimpleType(), Helpers::parseBoolean, String::valueOf);
-				case INTEGER: return new ListEntry<>(type.toSimpleType(), Helpers::parseInt, Helpers::fuzzyIntegerToString);
-				case LONG: return new ListEntry<>(type.toSimpleType(), Helpers::parseLong, Helpers::fuzzyLongToString);
-				case FLOAT: return new ListEntry<>(type.toSimpleType(), Helpers::parseFloat, Helpers::fuzzyFloatToString);
-				case DOUBLE: return new ListEntry<>(type.toSimpleType(), Helpers::parseDouble, Helpers::fuzzyDoubleToString);
+				case INTEGER: return new ListEntry<>(type.toSimpleType(), Helpers::parseInt, StructureParser::parseInt, Helpers::fuzzyIntegerToString);
+				case LONG: return new ListEntry<>(type.toSimpleType(), Helpers::parseLong, StructureParser::parseLong, Helpers::fuzzyLongToString);
+				case FLOAT: return new ListEntry<>(type.toSimpleType(), Helpers::parseFloat, StructureParser::parseFloat, Helpers::fuzzyFloatToString);
+				case DOUBLE: return new ListEntry<>(type.toSimpleType(), Helpers::parseDouble, StructureParser::parseDouble, Helpers::fuzzyDoubleToString);
 				case STRING: return new ListEntry<>(type.toSimpleType(), Helpers::parseString, Function.identity());
 				default: throw new IllegalStateException("Unsupported Type");
 			}
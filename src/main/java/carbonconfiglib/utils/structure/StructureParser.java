@@ -0,0 +1,239 @@
+package carbonconfiglib.utils.structure;
+
+import java.util.List;
+
+import carbonconfiglib.utils.NumberParser;
+import carbonconfiglib.utils.ParsedCollections.ParsedList;
+import carbonconfiglib.utils.ParsedCollections.ParsedMap;
+import carbonconfiglib.utils.structure.StructureCompound.CompoundData;
+import carbonconfiglib.utils.structure.StructureCompound.ICompoundEntry;
+import carbonconfiglib.utils.structure.StructureList.IListEntry;
+import carbonconfiglib.utils.structure.StructureList.ListData;
+import speiger.src.collections.objects.lists.ObjectArrayList;
+
+/**
+ * Copyright 2026 Speiger, Meduris
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * Recursive descent parser for Compounds and Lists that works on index ranges of the original text.
+ * Elements are only turned into Strings once they reach a simple value, nested structures are parsed in place.
+ * The parser is as lenient as the format always was, problems like unbalanced brackets are only recorded with their position.
+ */
+public final class StructureParser {
+	final String text;
+	final NumberParser numbers = new NumberParser();
+	String error;
+	int errorPosition = -1;
+	
+	public StructureParser(String text) {
+		this.text = text;
+	}
+	
+	public boolean hasError() {
+		return error != null;
+	}
+	
+	/**
+	 * @return the first problem that was found, including its position in the text, or null
+	 */
+	public String getError() {
+		return error == null ? null : error+" at position ["+errorPosition+"]";
+	}
+	
+	public int getErrorPosition() {
+		return errorPosition;
+	}
+	
+	/**
+	 * Parses a value from a range of the text, returns null if it isn't valid.
+	 */
+	@FunctionalInterface
+	public static interface IRangeParser<T> {
+		T parse(StructureParser parser, int start, int end);
+	}
+	
+	private void error(String message, int position) {
+		if(error != null) return;
+		error = message;
+		errorPosition = position;
+	}
+	
+	public String substring(int start, int end) {
+		return text.substring(start, end);
+	}
+	
+	/**
+	 * Number parsing directly on the text, invalid numbers return null without creating any error objects.
+	 */
+	public Integer parseInt(int start, int end) {
+		return numbers.parseInt(text, start, end) == NumberParser.SUCCESS ? numbers.intValue() : null;
+	}
+	
+	public Long parseLong(int start, int end) {
+		return numbers.parseLong(text, start, end) == NumberParser.SUCCESS ? numbers.longValue() : null;
+	}
+	
+	public Float parseFloat(int start, int end) {
+		return numbers.parseFloat(text, start, end) == NumberParser.SUCCESS ? numbers.floatValue() : null;
+	}
+	
+	public Double parseDouble(int start, int end) {
+		return numbers.parseDouble(text, start, end) == NumberParser.SUCCESS ? numbers.doubleValue() : null;
+	}
+	
+	private int trimStart(int start, int end) {
+		while(start < end && text.charAt(start) <= ' ') start++;
+		return start;
+	}
+	
+	private int trimEnd(int start, int end) {
+		while(end > start && text.charAt(end - 1) <= ' ') end--;
+		return end;
+	}
+	
+	/**
+	 * Parses a Compound with the form "[key: value; key: value;]".
+	 * Values without a known key are assigned to the key at their position, excess values are skipped.
+	 */
+	public ParsedMap parseCompound(CompoundData data, int start, int end) {
+		ICompoundEntry[] entries = data.getEntryArray();
+		int[] values = new int[entries.length * 2];
+		int[] found = new int[entries.length];
+		start = trimStart(start, end);
+		end = trimEnd(start, end);
+		if(start < end) {
+			//The last character before the closing bracket is the trailing ';' of the last element.
+			int from = start + (text.charAt(start) == '[' ? 1 : 0);
+			int to = end - ((text.charAt(end - 1) == ']' ? 1 : 0) + 1);
+			int element = 0;
+			int depth = 0;
+			int elementStart = from;
+			for(int i = from;i<to;i++) {
+				char value = text.charAt(i);
+				if(value == '[') depth++;
+				else if(value == ']') {
+					if(--depth < 0) error("Unexpected ']'", i);
+				}
+				else if(value == ';' && depth == 0) {
+					assignValue(entries, values, found, element++, elementStart, i);
+					elementStart = i + 1;
+				}
+			}
+			if(depth > 0) error("Missing ']'", to);
+			int elementEnd = trimEnd(elementStart, Math.max(elementStart, to));
+			if(trimStart(elementStart, elementEnd) < elementEnd) assignValue(entries, values, found, element, elementStart, elementEnd);
+		}
+		ParsedMap output = new ParsedMap();
+		for(int i = 0,m=entries.length;i<m;i++) {
+			if(found[i] != 0) entries[i].parse(this, values[i*2], values[i*2+1], output);
+			else entries[i].parse(this, 0, 0, output);
+		}
+		return output;
+	}
+	
+	private void assignValue(ICompoundEntry[] entries, int[] values, int[] found, int element, int start, int end) {
+		start = trimStart(start, end);
+		end = trimEnd(start, end);
+		int key = -1;
+		int split = indexOf(':', start, end);
+		if(split != -1) {
+			key = findKey(entries, start, split);
+			if(key != -1) start = trimStart(split + 1, end);
+		}
+		if(key == -1) {
+			if(element >= entries.length) {
+				error("More values then keys", start);
+				return;
+			}
+			key = element;
+		}
+		values[key*2] = start;
+		values[key*2+1] = end;
+		found[key] = 1;
+	}
+	
+	private int indexOf(char value, int start, int end) {
+		for(int i = start;i<end;i++) {
+			if(text.charAt(i) == value) return i;
+		}
+		return -1;
+	}
+	
+	private int findKey(ICompoundEntry[] entries, int start, int end) {
+		int length = end - start;
+		for(int i = 0,m=entries.length;i<m;i++) {
+			String name = entries[i].getName();
+			if(name.length() == length && text.regionMatches(start, name, 0, length)) return i;
+		}
+		return -1;
+	}
+	
+	/**
+	 * Parses a List with the form "[value, value]", the brackets are optional.
+	 */
+	public ParsedList parseList(ListData data, int start, int end) {
+		start = trimStart(start, end);
+		end = trimEnd(start, end);
+		ParsedList output = new ParsedList();
+		if(start < end) {
+			int from = start + (text.charAt(start) == '[' ? 1 : 0);
+			int to = Math.max(from, end - (text.charAt(end - 1) == ']' ? 1 : 0));
+			parseElements(data.type, from, to, output);
+		}
+		return output;
+	}
+	
+	/**
+	 * Parses comma separated Compounds without any surrounding brackets.
+	 */
+	public List<ParsedMap> parseCompounds(CompoundData data) {
+		List<ParsedMap> result = new ObjectArrayList<>();
+		int depth = 0;
+		int elementStart = 0;
+		for(int i = 0,m=text.length();i<m;i++) {
+			char value = text.charAt(i);
+			if(value == '[') depth++;
+			else if(value == ']') {
+				if(--depth < 0) error("Unexpected ']'", i);
+			}
+			else if(value == ',' && depth == 0) {
+				result.add(parseCompound(data, elementStart, i));
+				elementStart = i + 1;
+			}
+		}
+		if(depth > 0) error("Missing ']'", text.length());
+		if(trimStart(elementStart, text.length()) < text.length()) result.add(parseCompound(data, elementStart, text.length()));
+		return result;
+	}
+	
+	private void parseElements(IListEntry type, int from, int to, ParsedList output) {
+		int depth = 0;
+		int elementStart = from;
+		for(int i = from;i<to;i++) {
+			char value = text.charAt(i);
+			if(value == '[') depth++;
+			else if(value == ']') {
+				if(--depth < 0) error("Unexpected ']'", i);
+			}
+			else if(value == ',' && depth == 0) {
+				int start = trimStart(elementStart, i);
+				type.parse(this, start, trimEnd(start, i), output);
+				elementStart = i + 1;
+			}
+		}
+		if(depth > 0) error("Missing ']'", to);
+		int start = trimStart(elementStart, to);
+		if(start < to) type.parse(this, start, trimEnd(start, to), output);
+	}
+}
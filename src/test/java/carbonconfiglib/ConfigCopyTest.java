@@ -0,0 +1,175 @@
+package carbonconfiglib;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import carbonconfiglib.api.IReloadMode;
+import carbonconfiglib.api.ISuggestionProvider;
+import carbonconfiglib.api.ISuggestionProvider.Suggestion;
+import carbonconfiglib.config.Config;
+import carbonconfiglib.config.ConfigEntry;
+import carbonconfiglib.config.ConfigSection;
+import carbonconfiglib.utils.MultilinePolicy;
+import speiger.src.collections.objects.lists.ObjectArrayList;
+
+/**
+ * Copyright 2026 Speiger, Meduris
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class ConfigCopyTest {
+	static final IReloadMode RELOAD = new IReloadMode() {};
+	
+	public static void main(String...args) throws Exception {
+		for(int seed = 0;seed<2000;seed++) {
+			testLazyMatchesEager(new Random(seed), seed);
+		}
+		for(int seed = 0;seed<200;seed++) {
+			testConcurrentAccess(new Random(seed), seed);
+		}
+		System.out.println("All copy tests passed");
+	}
+	
+	/**
+	 * Copies are compared with copies that were fully accessed right away, while the template keeps changing its structure and settings.
+	 */
+	private static void testLazyMatchesEager(Random random, int seed) {
+		Config config = new Config("test");
+		List<ConfigSection> sections = new ObjectArrayList<>();
+		List<ConfigEntry<?>> entries = new ObjectArrayList<>();
+		for(int i = 0;i<3;i++) {
+			sections.add(config.add("s"+i));
+		}
+		List<Config> lazy = new ObjectArrayList<>();
+		List<Config> eager = new ObjectArrayList<>();
+		for(int op = 0;op<40;op++) {
+			switch(random.nextInt(10)) {
+				case 0:
+				case 1:
+					entries.add(sections.get(random.nextInt(sections.size())).addInt("i"+random.nextInt(10), 1, "c"+random.nextInt(3)));
+					break;
+				case 2:
+					ConfigSection parent = sections.get(random.nextInt(sections.size()));
+					sections.add(parent.addSubSection("x"+random.nextInt(4)));
+					break;
+				case 3:
+				case 4:
+					int index = lazy.isEmpty() || random.nextBoolean() ? -1 : random.nextInt(lazy.size());
+					lazy.add((index < 0 ? config : lazy.get(index)).copy());
+					Config copy = (index < 0 ? config : eager.get(index)).copy();
+					touch(copy);
+					eager.add(copy);
+					break;
+				case 5:
+					if(lazy.isEmpty()) break;
+					int target = random.nextInt(lazy.size());
+					String key = "b"+random.nextInt(3);
+					for(Config entry : new Config[]{lazy.get(target), eager.get(target)}) {
+						ConfigSection section = entry.getSection("s0");
+						if(section != null) section.addBool(key, true);
+					}
+					break;
+				default:
+					if(entries.isEmpty()) break;
+					changeSettings(entries.get(random.nextInt(entries.size())), random);
+			}
+		}
+		for(int i = 0,m=lazy.size();i<m;i++) {
+			String expected = describe(eager.get(i));
+			String result = describe(lazy.get(i));
+			if(!expected.equals(result)) throw new IllegalStateException("Seed "+seed+" copy "+i+" differs\nLazy:\n"+result+"\nEager:\n"+expected);
+		}
+	}
+	
+	/**
+	 * A copy that is accessed by multiple threads at the same time has to be filled exactly once.
+	 */
+	private static void testConcurrentAccess(Random random, int seed) throws InterruptedException {
+		Config config = new Config("test");
+		for(int i = 0;i<4;i++) {
+			ConfigSection section = config.add("s"+i);
+			for(int j = 0,m=random.nextInt(20)+1;j<m;j++) {
+				section.addInt("i"+j, j, "c"+j);
+			}
+			section.addSubSection("sub").addString("t", "value");
+		}
+		Config expected = config.copy();
+		touch(expected);
+		Config copy = config.copy();
+		String[] results = new String[4];
+		CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[results.length];
+		for(int i = 0;i<threads.length;i++) {
+			int index = i;
+			threads[i] = new Thread(() -> {
+				try { start.await(); }
+				catch(InterruptedException e) { return; }
+				results[index] = describe(index % 2 == 0 ? copy : copy.copy());
+			});
+			threads[i].start();
+		}
+		start.countDown();
+		for(Thread thread : threads) {
+			thread.join();
+		}
+		String reference = describe(expected);
+		for(int i = 0;i<results.length;i++) {
+			if(!reference.equals(results[i])) throw new IllegalStateException("Seed "+seed+" thread "+i+" saw a partial copy\n"+results[i]+"\nExpected:\n"+reference);
+		}
+	}
+	
+	private static void changeSettings(ConfigEntry<?> entry, Random random) {
+		switch(random.nextInt(4)) {
+			case 0: entry.setComment("changed"+random.nextInt(3)); break;
+			case 1: entry.setHidden(); break;
+			case 2: entry.addSuggestionProvider(ISuggestionProvider.single(Suggestion.value("1"))); break;
+			default: entry.setRequiredReload(RELOAD); break;
+		}
+	}
+	
+	private static void touch(Config config) {
+		for(ConfigSection section : config.getChildren()) {
+			touch(section);
+		}
+	}
+	
+	private static void touch(ConfigSection section) {
+		for(ConfigSection sub : section.getChildren()) {
+			touch(sub);
+		}
+		section.getEntries();
+	}
+	
+	private static String describe(Config config) {
+		StringBuilder builder = new StringBuilder(config.serialize(MultilinePolicy.DISABLED));
+		for(ConfigSection section : config.getChildren()) {
+			describe(section, builder);
+		}
+		return builder.toString();
+	}
+	
+	private static void describe(ConfigSection section, StringBuilder builder) {
+		for(ConfigEntry<?> entry : section.getEntries()) {
+			builder.append('\n').append(section.getSectionPath()).append('.').append(entry.getKey());
+			builder.append(' ').append(Arrays.toString(entry.getComment()));
+			builder.append(" shown=").append(entry.isNotHidden());
+			builder.append(" providers=").append(entry.getProviders().size());
+			builder.append(" reload=").append(entry.getReloadState() == RELOAD);
+		}
+		for(ConfigSection sub : section.getChildren()) {
+			describe(sub, builder);
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package carbonconfiglib;
+
+import java.util.Random;
+
+import carbonconfiglib.base.TestingValue;
+import carbonconfiglib.config.ConfigEntry.ParsedValue;
+import carbonconfiglib.utils.Helpers;
+import carbonconfiglib.utils.ParseResult;
+import carbonconfiglib.utils.structure.IStructuredData.EntryDataType;
+import carbonconfiglib.utils.structure.StructureCompound.CompoundBuilder;
+import carbonconfiglib.utils.structure.StructureCompound.CompoundData;
+
+/**
+ * Copyright 2026 Speiger, Meduris
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public class StructureParserTest {
+	static final String[] TOKENS = {"[", "]", ";", ",", ":", " ", "a", "name", "tags", "d", "x", "1", "2.5", "foo", "\n", "  "};
+	
+	public static void main(String...args) {
+		CompoundData data = new CompoundBuilder()
+				.simple("a", EntryDataType.INTEGER)
+				.simple("name", EntryDataType.STRING)
+				.listSimple("tags", EntryDataType.STRING, false)
+				.simple("d", EntryDataType.DOUBLE).build();
+		testEquivalence(data, new Random(42), 100000);
+		testErrors(data);
+		testRoundTrip();
+		testLargeInput(data);
+		System.out.println("All structure tests passed");
+	}
+	
+	private static void testEquivalence(CompoundData data, Random random, int runs) {
+		int compared = 0;
+		for(int i = 0;i<runs;i++) {
+			StringBuilder builder = new StringBuilder();
+			for(int j = 0,m=random.nextInt(25);j<m;j++) {
+				builder.append(TOKENS[random.nextInt(TOKENS.length)]);
+			}
+			String input = builder.toString();
+			String expected;
+			try {
+				expected = describe(data.parseMap(Helpers.splitArguments(Helpers.splitCompound(input.trim()), data.getKeys(), false)));
+			}
+			catch(RuntimeException e) {
+				//The String splitting crashes on inputs like more values then keys, the parser has to survive them
+				data.parse(input);
+				continue;
+			}
+			String result = describe(data.parse(input));
+			if(!expected.equals(result)) throw new IllegalStateException("Parser mismatch for ["+input+"]: expected "+expected+" but got "+result);
+			compared++;
+		}
+		System.out.println("Compared "+compared+" of "+runs+" random inputs with the String splitting");
+	}
+	
+	private static String describe(Object value) {
+		//Errors are only printed with their identity hash
+		return String.valueOf(value).replaceAll("@[0-9a-f]+", "");
+	}
+	
+	private static void testErrors(CompoundData data) {
+		expectError(data, "[a: 1; tags: [x, y;]", "Missing ']'");
+		expectError(data, "[a: 1; tags: x, y];]", "Unexpected ']'");
+		expectError(data, "[1; foo; [x]; 2.5; extra;]", "More values then keys");
+		ParseResult<?> result = data.tryParse("[a: 1; name: foo; tags: [x, y]; d: 2.5;]");
+		if(result.hasError()) throw new IllegalStateException("Valid input reported an error: "+result.getError().getMessage());
+		
+		ParsedValue<TestingValue> value = new ParsedValue<>("Test", new TestingValue(), TestingValue.createSerializer());
+		ParseResult<TestingValue> parsed = value.parseValue("[Name: a]; Year: 1; Fluffyness: 2; Counter: [[x];]");
+		if(!parsed.hasError() || !parsed.getError().getMessage().contains("position")) throw new IllegalStateException("Structure error was not surfaced: "+(parsed.hasError() ? parsed.getError().getMessage() : "none"));
+	}
+	
+	private static void expectError(CompoundData data, String input, String message) {
+		ParseResult<?> result = data.tryParse(input);
+		if(!result.hasError() || !result.getError().getMessage().contains(message) || !result.getError().getMessage().contains("position")) {
+			throw new IllegalStateException("Expected ["+message+"] with position for ["+input+"] but got "+(result.hasError() ? result.getError().getMessage() : "none"));
+		}
+	}
+	
+	private static void testRoundTrip() {
+		ParsedValue<TestingValue> value = new ParsedValue<>("Test", new TestingValue(), TestingValue.createSerializer());
+		String serialized = value.serialize();
+		ParseResult<TestingValue> result = value.parseValue(serialized);
+		if(result.hasError() || !result.getValue().equals(new TestingValue())) throw new IllegalStateException("Round trip failed for "+serialized);
+	}
+	
+	private static void testLargeInput(CompoundData data) {
+		StringBuilder builder = new StringBuilder("[");
+		for(int i = 0;i<200000;i++) {
+			builder.append("value").append(i).append("; ");
+		}
+		String input = builder.append("]").toString();
+		long start = System.nanoTime();
+		data.tryParse(input);
+		System.out.println("Parsed "+input.length()+" characters in "+((System.nanoTime() - start) / 1000000L)+"ms");
+	}
+}